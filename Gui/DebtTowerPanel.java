@@ -21,7 +21,7 @@ public class DebtTowerPanel extends JPanel {
         Graphics2D g2 = (Graphics2D) g;
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        List<Debt> debts = manager.getStackForVisualization();
+        List<Debt> debts = manager.getStackView();
         int w = getWidth(), h = getHeight();
 
         // Draw Pole
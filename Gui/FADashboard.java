@@ -111,6 +111,8 @@ public class FADashboard extends JFrame {
     // showCurrentReport() - Shows details of the current top-of-stack (TOS) report
     // moveToAuxiliary() - Moves TOS report to auxiliary pillar
     // solveReport() - Marks current report as solved and reorganizes debts
+    // showStrategyComparison() - Runs the payoff strategy comparison for every
+    // client in the background and shows the results
     // showProfile() - Displays current user profile information
     // logout() - Logs out the user and returns to login screen
 
@@ -150,8 +152,8 @@ public class FADashboard extends JFrame {
     // Tower Visualization Methods - Methods for drawing the debt tower
     // visualization
     // ===========================
-    // TowerVisualizationPanel(Stack, Stack, Stack) - Constructor for tower
-    // visualization panel
+    // TowerVisualizationPanel() - Constructor for tower visualization panel
+    // (paints the manager's live pillar views)
     // paintComponent(Graphics) - Main painting method for tower visualization
     // drawClientDebts(Graphics2D, int, int) - Draws client debt pillar
     // drawAuxiliaryDebts(Graphics2D, int, int) - Draws auxiliary debt pillar
@@ -165,9 +167,11 @@ public class FADashboard extends JFrame {
     // main(String[]) - Main method for standalone testing of the dashboard
 
     private AppController controller;
-    private Stack<Debt> clientDebts = new Stack<>();
-    private Stack<Debt> auxiliaryDebts = new Stack<>();
-    private Stack<Debt> paidOffDebts = new Stack<>();
+    // Every report state change goes through the service; the advisor's pillars
+    // are a working area, not persisted, so it gets its own manager. Painting and
+    // analytics read the manager's live views, nothing is copied per refresh
+    private final DebtManager manager = new DebtManager();
+    private final DebtTowerService service = new DebtTowerService(manager);
 
     private JLayeredPane layeredPane;
     private JPanel mainLayer;
@@ -214,11 +218,11 @@ public class FADashboard extends JFrame {
     }
 
     private void initializeSampleDebtData() {
-        clientDebts.push(new Debt("John Doe - Credit Card", 5000.00, 18.5, 100.00));
-        clientDebts.push(new Debt("Sarah Smith - Student Loan", 15000.00, 6.8, 200.00));
-        clientDebts.push(new Debt("Mike Johnson - Car Loan", 10000.00, 5.5, 250.00));
-        paidOffDebts.push(new Debt("Robert Brown - Personal Loan", 0.00, 0.0, 0.00));
-        paidOffDebts.push(new Debt("Emma Wilson - Medical Bill", 0.00, 0.0, 0.00));
+        service.push(new Debt("John Doe - Credit Card", 5000.00, 18.5, 100.00));
+        service.push(new Debt("Sarah Smith - Student Loan", 15000.00, 6.8, 200.00));
+        service.push(new Debt("Mike Johnson - Car Loan", 10000.00, 5.5, 250.00));
+        manager.moveToPaidOff(new Debt("Robert Brown - Personal Loan", 0.00, 0.0, 0.00));
+        manager.moveToPaidOff(new Debt("Emma Wilson - Medical Bill", 0.00, 0.0, 0.00));
     }
 
     private void initUI() {
@@ -357,6 +361,15 @@ public class FADashboard extends JFrame {
         }));
         sidebar.add(Box.createVerticalStrut(20));
 
+        sidebar.add(createSidebarButton("Strategies", "Compare payoff strategies for all clients", e -> {
+            try {
+                showStrategyComparison();
+            } catch (Exception ex) {
+                showError("Error comparing strategies", ex);
+            }
+        }));
+        sidebar.add(Box.createVerticalStrut(20));
+
         sidebar.add(createSidebarButton("Profile", "User Profile", e -> {
             try {
                 showProfile();
@@ -425,7 +438,7 @@ public class FADashboard extends JFrame {
         towerContainer.setLayout(new BorderLayout());
         towerContainer.setBounds(towerX, towerY, towerWidth, towerHeight);
 
-        towerVis = new TowerVisualizationPanel(clientDebts, auxiliaryDebts, paidOffDebts);
+        towerVis = new TowerVisualizationPanel();
         towerContainer.add(towerVis, BorderLayout.CENTER);
         mainLayer.add(towerContainer);
 
@@ -452,7 +465,7 @@ public class FADashboard extends JFrame {
         logsArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         logsArea.setText(" > Financial Advisor Dashboard Initialized\n" +
                 " > Ready to handle client consultation requests\n" +
-                " > Client debt stack loaded: " + clientDebts.size() + " items\n" +
+                " > Client debt stack loaded: " + manager.getStackView().size() + " items\n" +
                 " > Logged in as: "
                 + (controller.getCurrentUser() != null ? controller.getCurrentUser().getFullName() : "Unknown"));
 
@@ -482,13 +495,13 @@ public class FADashboard extends JFrame {
 
         // Create the stat panels and store references to the value labels
         StatPanelData totalReportsData = createStatPanelWithData("Total Reports",
-                String.valueOf(clientDebts.size() + auxiliaryDebts.size() + paidOffDebts.size()),
+                String.valueOf(manager.getStackView().size() + manager.getAuxiliaryView().size() + manager.getPaidOffView().size()),
                 new Color(52, 152, 219));
         totalReportsLabel = totalReportsData.valueLabel;
         analyticsPanel.add(totalReportsData.panel);
 
         StatPanelData solvedReportsData = createStatPanelWithData("Solved Reports",
-                String.valueOf(paidOffDebts.size()), new Color(46, 204, 113));
+                String.valueOf(manager.getPaidOffView().size()), new Color(46, 204, 113));
         solvedReportsLabel = solvedReportsData.valueLabel;
         analyticsPanel.add(solvedReportsData.panel);
 
@@ -711,7 +724,7 @@ public class FADashboard extends JFrame {
         Debt newDebt = new Debt(debtName, amount, interest, minPayment);
 
         // Add to TOS (top of client debt stack)
-        clientDebts.push(newDebt);
+        service.push(newDebt);
 
         // Update UI
         refreshTowerVisualization();
@@ -785,11 +798,11 @@ public class FADashboard extends JFrame {
 
     private void updateAnalytics() {
         // Update reports count
-        int totalReports = clientDebts.size() + auxiliaryDebts.size() + paidOffDebts.size();
+        int totalReports = manager.getStackView().size() + manager.getAuxiliaryView().size() + manager.getPaidOffView().size();
         totalReportsLabel.setText(String.valueOf(totalReports));
 
         // Update solved reports count
-        solvedReportsLabel.setText(String.valueOf(paidOffDebts.size()));
+        solvedReportsLabel.setText(String.valueOf(manager.getPaidOffView().size()));
 
         // Update appointments count
         try {
@@ -815,31 +828,20 @@ public class FADashboard extends JFrame {
     }
 
     private int getUniqueClientCount() {
+        // Client names are the part of each report name before " - "
         Set<String> uniqueClients = new HashSet<>();
+        addClientNames(uniqueClients, manager.getStackView());
+        addClientNames(uniqueClients, manager.getAuxiliaryView());
+        addClientNames(uniqueClients, manager.getPaidOffView());
+        return uniqueClients.size();
+    }
 
-        // Extract client names from debts
-        for (Debt debt : clientDebts) {
-            String[] parts = debt.getName().split(" - ");
-            if (parts.length > 0) {
-                uniqueClients.add(parts[0]);
-            }
-        }
-
-        for (Debt debt : auxiliaryDebts) {
-            String[] parts = debt.getName().split(" - ");
-            if (parts.length > 0) {
-                uniqueClients.add(parts[0]);
-            }
-        }
-
-        for (Debt debt : paidOffDebts) {
-            String[] parts = debt.getName().split(" - ");
-            if (parts.length > 0) {
-                uniqueClients.add(parts[0]);
-            }
+    private static void addClientNames(Set<String> clients, java.util.List<Debt> pillar) {
+        for (Debt debt : pillar) {
+            String name = debt.getName();
+            int separator = name.indexOf(" - ");
+            clients.add(separator >= 0 ? name.substring(0, separator) : name);
         }
-
-        return uniqueClients.size();
     }
 
     private void refreshDashboard() {
@@ -852,10 +854,6 @@ public class FADashboard extends JFrame {
 
     private void showClientConsultationRequests() {
         try {
-            ArrayList<ConsultationRequest> requests = DataManager.loadConsultationRequests();
-            log("Loaded " + requests.size() + " consultation requests from storage");
-
-            ArrayList<ConsultationRequest> myRequests = new ArrayList<>();
             String currentUsername = controller.getCurrentUsername();
 
             if (currentUsername == null) {
@@ -863,11 +861,8 @@ public class FADashboard extends JFrame {
                 return;
             }
 
-            for (ConsultationRequest request : requests) {
-                if (request.getAdvisorUsername().equals(currentUsername)) {
-                    myRequests.add(request);
-                }
-            }
+            ArrayList<ConsultationRequest> myRequests = DataManager.loadAdvisorRequests(currentUsername);
+            log("Loaded " + myRequests.size() + " consultation requests from storage");
 
             if (myRequests.isEmpty()) {
                 JOptionPane.showMessageDialog(this,
@@ -984,60 +979,16 @@ public class FADashboard extends JFrame {
 
     private void confirmSchedule(ConsultationRequest request, JDialog parentDialog) {
         try {
-            request.setStatus("SCHEDULED");
-
-            ConsultationAppointment appointment = new ConsultationAppointment(
-                    request.getClientUsername(),
-                    request.getClientName(),
-                    request.getAdvisorUsername(),
-                    request.getAdvisorName(),
-                    request.getReason(),
-                    request.getPlatform(),
-                    new SimpleDateFormat("yyyy-MM-dd").format(new Date()),
-                    new Date(),
-                    "SCHEDULED");
-
-            // Save the appointment
-            ArrayList<ConsultationAppointment> appointments = DataManager.loadScheduledAppointments();
-            appointments.add(appointment);
-            DataManager.saveScheduledAppointments(appointments);
-
-            // Get all consultation requests
-            ArrayList<ConsultationRequest> allRequests = DataManager.loadConsultationRequests();
-
-            // Find and remove the specific request
-            ConsultationRequest requestToRemove = null;
-            for (ConsultationRequest req : allRequests) {
-                if (req.getClientUsername().equals(request.getClientUsername()) &&
-                        req.getAdvisorUsername().equals(request.getAdvisorUsername()) &&
-                        req.getReason().equals(request.getReason()) &&
-                        req.getRequestDate().equals(request.getRequestDate())) {
-                    requestToRemove = req;
-                    break;
-                }
-            }
-
-            if (requestToRemove != null) {
-                allRequests.remove(requestToRemove);
-            }
-
-            // Save the updated requests list
-            DataManager.saveConsultationRequests(allRequests);
-
-            // Update client's personal request list
-            DataManager.deleteConsultationRequest(request);
-
-            // Add consultation fee to client debts
-            String debtName = request.getClientName() + " - Consultation (" + request.getReason() + ")";
-            Debt consultationDebt = new Debt(debtName, 150.00, 0.0, 150.00);
-            clientDebts.push(consultationDebt);
+            // Books the appointment and pushes the consultation fee as the new TOS
+            service.schedule(request);
 
             log("SCHEDULED: Consultation with " + request.getClientName() +
-                    " - Added to TOS: " + debtName);
+                    " - Added to TOS: " + service.peekTOS().getName());
 
             JOptionPane.showMessageDialog(parentDialog,
                     "Appointment scheduled successfully!\n" +
-                            "Consultation fee ($150.00) added to TOS.\n" +
+                            "Consultation fee ($" + Money.format(DebtTowerService.CONSULTATION_FEE_CENTS)
+                            + ") added to TOS.\n" +
                             "Client has been notified.",
                     "Appointment Scheduled",
                     JOptionPane.INFORMATION_MESSAGE);
@@ -1066,34 +1017,7 @@ public class FADashboard extends JFrame {
 
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                request.setStatus("REJECTED");
-
-                // Get all consultation requests
-                ArrayList<ConsultationRequest> allRequests = DataManager.loadConsultationRequests();
-
-                // Find and remove the specific request
-                ConsultationRequest requestToRemove = null;
-                for (ConsultationRequest req : allRequests) {
-                    if (req.getClientUsername().equals(request.getClientUsername()) &&
-                            req.getAdvisorUsername().equals(request.getAdvisorUsername()) &&
-                            req.getReason().equals(request.getReason()) &&
-                            req.getRequestDate().equals(request.getRequestDate())) {
-                        requestToRemove = req;
-                        break;
-                    }
-                }
-
-                if (requestToRemove != null) {
-                    allRequests.remove(requestToRemove);
-                }
-
-                // Save the updated requests list
-                DataManager.saveConsultationRequests(allRequests);
-
-                // Set status first
-                request.setStatus("REJECTED");
-                // Then call deleteConsultationRequest which will update both lists
-                DataManager.deleteConsultationRequest(request);
+                service.reject(request);
 
                 log("REJECTED: Consultation request from " + request.getClientName());
 
@@ -1120,30 +1044,79 @@ public class FADashboard extends JFrame {
 
     private void updateClientRequestStatus(String clientUsername, ConsultationRequest originalRequest,
             String newStatus) {
-        try {
-            ArrayList<ConsultationRequest> clientRequests = DataManager.loadClientRequests(clientUsername);
+        DataManager.updateClientRequestStatus(clientUsername, originalRequest, newStatus);
+    }
 
-            for (int i = 0; i < clientRequests.size(); i++) {
-                ConsultationRequest cr = clientRequests.get(i);
-                if (cr.getClientUsername().equals(originalRequest.getClientUsername()) &&
-                        cr.getAdvisorUsername().equals(originalRequest.getAdvisorUsername()) &&
-                        cr.getReason().equals(originalRequest.getReason())) {
+    private void showStrategyComparison() {
+        String currentUsername = controller.getCurrentUsername();
+        if (currentUsername == null) {
+            JOptionPane.showMessageDialog(this, "Not logged in!", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
 
-                    cr.setStatus(newStatus);
-                    break;
+        log("Comparing payoff strategies for all clients...");
+        // Loading and simulating every client runs on the fork/join pool, off the EDT
+        new SwingWorker<PortfolioAnalyzer.ClientReport[], Void>() {
+            @Override
+            protected PortfolioAnalyzer.ClientReport[] doInBackground() {
+                return new PortfolioAnalyzer().analyzeAdvisorClients(currentUsername);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showStrategyReports(get());
+                } catch (Exception ex) {
+                    showError("Error comparing strategies", ex);
                 }
             }
+        }.execute();
+    }
 
-            DataManager.saveClientRequests(clientUsername, clientRequests);
-        } catch (Exception e) {
-            System.err.println("Error updating client request status: " + e.getMessage());
-            e.printStackTrace();
+    private void showStrategyReports(PortfolioAnalyzer.ClientReport[] reports) {
+        log("Strategy comparison finished for " + reports.length + " clients");
+        if (reports.length == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "No clients found.\nClients appear here once they send you a consultation request.",
+                    "Strategy Comparison",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        SimpleDateFormat monthFormat = new SimpleDateFormat("MMM yyyy");
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-16s %6s %-10s %14s %14s %-10s%n",
+                "Client", "Debts", "Best", "Budget/mo", "Interest saved", "Debt-free"));
+        for (PortfolioAnalyzer.ClientReport report : reports) {
+            if (report.getError() != null) {
+                sb.append(String.format("%-16s error: %s%n", report.getClientUsername(), report.getError()));
+                continue;
+            }
+            String payoff = report.getPayoffDate() != null ? monthFormat.format(report.getPayoffDate()) : "never";
+            // Savings only mean something when the best plan actually pays everything off
+            String saved = report.getPayoffDate() != null ? "$" + Money.format(report.getInterestSavedCents()) : "-";
+            sb.append(String.format("%-16s %6d %-10s %14s %14s %-10s%n",
+                    report.getClientUsername(),
+                    report.getDebtCount(),
+                    report.getBestStrategy(),
+                    "$" + Money.format(report.getMonthlyBudgetCents()),
+                    saved,
+                    payoff));
         }
+
+        JTextArea area = new JTextArea(sb.toString());
+        area.setEditable(false);
+        area.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane scroll = new JScrollPane(area);
+        scroll.setPreferredSize(new Dimension(720, 360));
+        JOptionPane.showMessageDialog(this, scroll,
+                "Strategy Comparison (budget = minimum payments + 10%)",
+                JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void showCurrentReport() {
-        if (!clientDebts.isEmpty()) {
-            Debt topDebt = clientDebts.peek();
+        Debt topDebt = service.peekTOS();
+        if (topDebt != null) {
 
             JOptionPane.showMessageDialog(this,
                     "Current TOS Report Details:\n" +
@@ -1154,7 +1127,7 @@ public class FADashboard extends JFrame {
                             "Interest Rate: " + topDebt.getInterestRate() + "%\n" +
                             "Minimum Payment: $" + String.format("%.2f", topDebt.getMinimumPayment()) + "\n" +
                             "Position: TOS (Top of Stack)\n" +
-                            "Stack Size: " + clientDebts.size() + " reports\n" +
+                            "Stack Size: " + manager.getStackView().size() + " reports\n" +
                             "=====================",
                     "Current TOS Report",
                     JOptionPane.INFORMATION_MESSAGE);
@@ -1168,8 +1141,8 @@ public class FADashboard extends JFrame {
     }
 
     private void moveToAuxiliary() {
-        if (!clientDebts.isEmpty()) {
-            Debt topDebt = clientDebts.peek();
+        Debt topDebt = service.peekTOS();
+        if (topDebt != null) {
 
             int confirm = JOptionPane.showConfirmDialog(this,
                     "Move TOS to auxiliary?\n" +
@@ -1180,15 +1153,15 @@ public class FADashboard extends JFrame {
                     JOptionPane.YES_NO_OPTION);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                Debt movedDebt = clientDebts.pop();
-                auxiliaryDebts.push(movedDebt);
+                Debt movedDebt = service.moveToAuxiliary();
+                Debt newTOS = service.peekTOS();
 
                 log("MOVED: " + movedDebt.getName() + " from TOS to auxiliary (LIFO)");
                 JOptionPane.showMessageDialog(this,
                         "Successfully moved to auxiliary:\n" +
                                 movedDebt.getName() + "\n" +
                                 "Balance: $" + String.format("%.2f", movedDebt.getCurrentBalance()) + "\n" +
-                                "New TOS: " + (clientDebts.isEmpty() ? "None" : clientDebts.peek().getName()),
+                                "New TOS: " + (newTOS == null ? "None" : newTOS.getName()),
                         "Moved to Auxiliary",
                         JOptionPane.INFORMATION_MESSAGE);
 
@@ -1205,8 +1178,8 @@ public class FADashboard extends JFrame {
     }
 
     private void solveReport() {
-        if (!clientDebts.isEmpty()) {
-            Debt topReport = clientDebts.peek();
+        Debt topReport = service.peekTOS();
+        if (topReport != null) {
 
             int confirm = JOptionPane.showConfirmDialog(this,
                     "Mark this report as SOLVED?\n" +
@@ -1218,22 +1191,12 @@ public class FADashboard extends JFrame {
                     JOptionPane.YES_NO_OPTION);
 
             if (confirm == JOptionPane.YES_OPTION) {
-                Debt solvedReport = clientDebts.pop();
-                solvedReport.makePayment(solvedReport.getCurrentBalance());
-                paidOffDebts.push(solvedReport);
-
-                int movedCount = 0;
-                Stack<Debt> tempStack = new Stack<>();
-
-                while (!auxiliaryDebts.isEmpty()) {
-                    tempStack.push(auxiliaryDebts.pop());
-                }
-
-                while (!tempStack.isEmpty()) {
-                    Debt auxDebt = tempStack.pop();
-                    clientDebts.push(auxDebt);
-                    movedCount++;
-                }
+                // Paid in full, then auxiliary reports go back in their original
+                // bottom-to-top order
+                DebtTowerService.SolveResult result = service.solve();
+                Debt solvedReport = result.getSolved();
+                int movedCount = result.getRestoredCount();
+                Debt newTOS = service.peekTOS();
 
                 log("SOLVED: Report marked as solved - " + solvedReport.getName());
                 if (movedCount > 0) {
@@ -1245,7 +1208,7 @@ public class FADashboard extends JFrame {
                                 solvedReport.getName() + "\n" +
                                 "Moved to Paid-Off section\n" +
                                 movedCount + " auxiliary debts moved back to client debts pillar\n" +
-                                "New TOS: " + (clientDebts.isEmpty() ? "None" : clientDebts.peek().getName()),
+                                "New TOS: " + (newTOS == null ? "None" : newTOS.getName()),
                         "Report Solved",
                         JOptionPane.INFORMATION_MESSAGE);
 
@@ -1270,9 +1233,9 @@ public class FADashboard extends JFrame {
                             "Username: " + controller.getCurrentUsername() + "\n" +
                             "Email: " + currentUser.getEmail() + "\n" +
                             "User Type: " + currentUser.getUserType() + "\n" +
-                            "Active Reports: " + clientDebts.size() + "\n" +
-                            "Auxiliary Reports: " + auxiliaryDebts.size() + "\n" +
-                            "Solved Reports: " + paidOffDebts.size() + "\n" +
+                            "Active Reports: " + manager.getStackView().size() + "\n" +
+                            "Auxiliary Reports: " + manager.getAuxiliaryView().size() + "\n" +
+                            "Solved Reports: " + manager.getPaidOffView().size() + "\n" +
                             "Total Unique Clients: " + getUniqueClientCount(),
                     "User Profile",
                     JOptionPane.INFORMATION_MESSAGE);
@@ -1338,14 +1301,7 @@ public class FADashboard extends JFrame {
     }
 
     private class TowerVisualizationPanel extends JPanel {
-        private Stack<Debt> clientDebts;
-        private Stack<Debt> auxiliaryDebts;
-        private Stack<Debt> paidOffDebts;
-
-        public TowerVisualizationPanel(Stack<Debt> clientDebts, Stack<Debt> auxiliaryDebts, Stack<Debt> paidOffDebts) {
-            this.clientDebts = clientDebts;
-            this.auxiliaryDebts = auxiliaryDebts;
-            this.paidOffDebts = paidOffDebts;
+        public TowerVisualizationPanel() {
             setOpaque(false);
         }
 
@@ -1392,7 +1348,8 @@ public class FADashboard extends JFrame {
         }
 
         private void drawClientDebts(Graphics2D g2, int centerX, int baseY) {
-            if (clientDebts.isEmpty()) {
+            java.util.List<Debt> pillar = manager.getStackView();
+            if (pillar.isEmpty()) {
                 g2.setColor(Color.LIGHT_GRAY);
                 g2.setFont(new Font("SansSerif", Font.ITALIC, 14));
                 g2.drawString("No Client Debts", centerX - 50, baseY - 100);
@@ -1401,10 +1358,9 @@ public class FADashboard extends JFrame {
 
             int brickH = 50;
             int gap = 5;
-            Debt[] debtsArray = clientDebts.toArray(new Debt[0]);
 
-            for (int i = 0; i < Math.min(debtsArray.length, 6); i++) {
-                Debt d = debtsArray[i];
+            for (int i = 0; i < Math.min(pillar.size(), 6); i++) {
+                String debtName = pillar.get(i).getName();
                 int yPos = baseY - gap - brickH - (i * (brickH + gap));
 
                 Color c;
@@ -1416,7 +1372,7 @@ public class FADashboard extends JFrame {
                     c = new Color(255, 193, 7);
 
                 g2.setColor(c);
-                int width = 250 + ((debtsArray.length - i - 1) * 20);
+                int width = 250 + ((pillar.size() - i - 1) * 20);
                 if (i == 0)
                     width += 50;
 
@@ -1424,9 +1380,9 @@ public class FADashboard extends JFrame {
                 g2.setColor(Color.WHITE);
                 g2.setFont(new Font("SansSerif", Font.BOLD, 13));
 
-                String[] parts = d.getName().split(" - ", 2);
-                String clientName = parts.length > 0 ? parts[0] : d.getName();
-                String reportType = parts.length > 1 ? parts[1] : d.getName();
+                String[] parts = debtName.split(" - ", 2);
+                String clientName = parts.length > 0 ? parts[0] : debtName;
+                String reportType = parts.length > 1 ? parts[1] : debtName;
 
                 String nameText = clientName;
                 if (nameText.length() > 20)
@@ -1443,13 +1399,14 @@ public class FADashboard extends JFrame {
                 if (i == 0)
                     g2.drawString("", centerX - width / 2 + 10, yPos + 38);
 
-                String balanceText = "$" + (int) d.getCurrentBalance();
+                String balanceText = "$" + pillar.get(i).getCurrentBalanceCents() / Money.CENTS_PER_DOLLAR;
                 g2.drawString(balanceText, centerX + width / 2 - 50, yPos + 25);
             }
         }
 
         private void drawAuxiliaryDebts(Graphics2D g2, int centerX, int baseY) {
-            if (auxiliaryDebts.isEmpty()) {
+            java.util.List<Debt> pillar = manager.getAuxiliaryView();
+            if (pillar.isEmpty()) {
                 g2.setColor(Color.LIGHT_GRAY);
                 g2.setFont(new Font("SansSerif", Font.ITALIC, 14));
                 g2.drawString("No Auxiliary Debts", centerX - 50, baseY - 100);
@@ -1458,32 +1415,32 @@ public class FADashboard extends JFrame {
 
             int brickH = 50;
             int gap = 5;
-            Debt[] debtsArray = auxiliaryDebts.toArray(new Debt[0]);
 
-            for (int i = 0; i < Math.min(debtsArray.length, 6); i++) { // FIXED: changed debitsArray to debtsArray
-                Debt d = debtsArray[i];
+            for (int i = 0; i < Math.min(pillar.size(), 6); i++) {
+                String debtName = pillar.get(i).getName();
                 int yPos = baseY - gap - brickH - (i * (brickH + gap));
 
                 Color c = new Color(150, 150, 200);
                 g2.setColor(c);
-                int width = 200 + ((debtsArray.length - i - 1) * 15 + 20);
+                int width = 200 + ((pillar.size() - i - 1) * 15 + 20);
 
                 g2.fillRoundRect(centerX - width / 2, yPos, width, brickH, 10, 10);
                 g2.setColor(Color.WHITE);
                 g2.setFont(new Font("SansSerif", Font.BOLD, 12));
 
-                String displayName = d.getName();
+                String displayName = debtName;
                 if (displayName.length() > 25)
                     displayName = displayName.substring(0, 22) + "...";
                 g2.drawString(displayName, centerX - width / 2 + 10, yPos + 22);
 
-                String balanceText = "$" + (int) d.getCurrentBalance();
+                String balanceText = "$" + pillar.get(i).getCurrentBalanceCents() / Money.CENTS_PER_DOLLAR;
                 g2.drawString(balanceText, centerX + width / 2 - 50, yPos + 22);
             }
         }
 
         private void drawPaidOffDebts(Graphics2D g2, int centerX, int baseY) {
-            if (paidOffDebts.isEmpty()) {
+            java.util.List<Debt> pillar = manager.getPaidOffView();
+            if (pillar.isEmpty()) {
                 g2.setColor(Color.LIGHT_GRAY);
                 g2.setFont(new Font("SansSerif", Font.ITALIC, 14));
                 g2.drawString("No Paid-off Debts", centerX - 50, baseY - 100);
@@ -1492,21 +1449,20 @@ public class FADashboard extends JFrame {
 
             int brickH = 50;
             int gap = 5;
-            Debt[] debtsArray = paidOffDebts.toArray(new Debt[0]);
 
-            for (int i = 0; i < Math.min(debtsArray.length, 8); i++) {
-                Debt d = debtsArray[i];
+            for (int i = 0; i < Math.min(pillar.size(), 8); i++) {
+                String debtName = pillar.get(i).getName();
                 int yPos = baseY - gap - brickH - (i * (brickH + gap));
 
                 Color c = new Color(100, 200, 100);
                 g2.setColor(c);
-                int width = 180 + ((debtsArray.length - i - 1) * 10 + 20);
+                int width = 180 + ((pillar.size() - i - 1) * 10 + 20);
 
                 g2.fillRoundRect(centerX - width / 2, yPos, width, brickH, 8, 8);
                 g2.setColor(Color.WHITE);
                 g2.setFont(new Font("SansSerif", Font.BOLD, 12));
 
-                String displayName = d.getName();
+                String displayName = debtName;
                 if (displayName.length() > 30)
                     displayName = displayName.substring(0, 27) + "...";
                 g2.drawString(displayName, centerX - width / 2 + 5, yPos + 18);
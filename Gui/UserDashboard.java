@@ -2,6 +2,10 @@ package Gui;
 
 import Model.*;
 import javax.swing.*;
+import javax.swing.event.AncestorEvent;
+import javax.swing.event.AncestorListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.event.*;
@@ -28,6 +32,8 @@ public class UserDashboard extends JFrame {
     // panels
     // createLogsPanel() - Creates the operation logs panel at the bottom
     // refreshAll() - Refreshes all UI components and updates display
+    // updateAllocationHint() - Solves the best split of the typed payment across
+    // every active debt and shows it under the payment field
 
     // ===========================
     // Panel Creation Methods - Methods for creating individual UI panels
@@ -52,6 +58,8 @@ public class UserDashboard extends JFrame {
     // onSettleClicked() - Makes payment on current TOS debt
     // onHistoryClicked() - Toggles visibility of operation logs
     // onDeleteClicked() - Deletes current TOS debt with confirmation
+    // onForecastClicked() - Runs a Monte Carlo payoff forecast for a monthly
+    // budget and shows payoff month percentiles per strategy
     // onProfileClicked() - Displays user profile information
     // onAuxiliary() - Moves TOS debt to auxiliary stack with password verification
     // logout() - Logs out user and returns to login screen
@@ -62,10 +70,14 @@ public class UserDashboard extends JFrame {
     // pushNewDebt() - Adds new debt to the top of the stack (TOS)
     // makePayment() - Processes payment on current TOS debt
     // searchDebtByName() - Searches for debts by name (partial match)
+    // promptLiveSearch() - Search field with suggestions updated per keystroke
     // filterByAmountRange() - Filters debts by balance range
     // filterByInterestRate() - Filters debts by interest rate range
+    // runCombinedQuery() - Filters by name, amount, rate and stack at once, in a
+    // chosen order
     // showAllDebts() - Displays all debts across all stacks
-    // displayFilterResults() - Displays results of debt filtering
+    // showQueryResults() - Pages through a DebtQuery's results
+    // appendDebtRow() - Formats one result line
     // getDebtLocation() - Returns which stack a debt belongs to
 
     // ===========================
@@ -100,7 +112,6 @@ public class UserDashboard extends JFrame {
     // ===========================
     // getDebtsForVisualization() - Returns debts in proper LIFO order for
     // visualization
-    // getAllDebts() - Returns all debts from all stacks
     // getStackOrderDebug() - Returns formatted string showing current stack order
     // for debugging
 
@@ -132,8 +143,9 @@ public class UserDashboard extends JFrame {
 
     private AppController controller;
     private DebtManager manager;
-    private ArrayList<Debt> auxiliaryDebts = new ArrayList<>();
-    private ArrayList<Debt> paidOffDebts = new ArrayList<>();
+    // Every debt state change goes through the service, the dashboard only asks
+    // and displays
+    private DebtTowerService service;
 
     private JLayeredPane layeredPane;
     private JPanel mainLayer;
@@ -150,11 +162,21 @@ public class UserDashboard extends JFrame {
     private JLabel cardTitleLabel, posLabel, balValLabel, intValLabel, ogAmtLabel, minPayLabel;
     private JProgressBar progressBar;
     private JLabel tosLabel;
+    private JLabel allocationLabel;
+    // Reused on every keystroke in the payment field
+    private final PaymentAllocator allocator = new PaymentAllocator();
     private SimpleDateFormat dateFormat = new SimpleDateFormat("MMMM d");
+    // Monte Carlo paths per forecast
+    private static final int FORECAST_PATHS = 100_000;
+    // Suggestions shown under the live search field
+    private static final int LIVE_SEARCH_LIMIT = 10;
+    // Results per page in the search and filter dialogs
+    private static final int RESULTS_PAGE_SIZE = 50;
 
     public UserDashboard(AppController controller) {
         this.controller = controller;
         this.manager = controller.getManager();
+        this.service = controller.getTowerService();
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setExtendedState(JFrame.MAXIMIZED_BOTH);
@@ -214,7 +236,7 @@ public class UserDashboard extends JFrame {
 
     private void createSidebar() {
         JPanel sidebar = new JPanel();
-        sidebar.setLayout(new GridLayout(11, 1, 0, 20)); // Changed from 9 to 11 for new buttons
+        sidebar.setLayout(new GridLayout(12, 1, 0, 20)); // Changed from 9 to 12 for new buttons
         sidebar.setOpaque(false);
         sidebar.setBounds(20, 150, 100, 650);
 
@@ -232,6 +254,7 @@ public class UserDashboard extends JFrame {
 
         sidebar.add(createIconButton("HISTORY", "History", e -> onHistoryClicked()));
         sidebar.add(createIconButton("DELETE", "Delete", e -> onDeleteClicked()));
+        sidebar.add(createIconButton("FORECAST", "Forecast Payoff Date", e -> onForecastClicked()));
         sidebar.add(createIconButton("PROFILE", "Profile", e -> onProfileClicked()));
         sidebar.add(createIconButton("AUXILIARY", "Move TOS to Auxiliary", e -> onAuxiliary()));
         sidebar.add(createIconButton("LOGOUT", "Logout from system", e -> logout()));
@@ -437,7 +460,7 @@ public class UserDashboard extends JFrame {
             message.append("   Min Payment: $").append(String.format("%.2f", debt.getMinimumPayment())).append("\n");
 
             // Show LIFO position
-            int lifoPosition = activeDebts.indexOf(debt);
+            int lifoPosition = service.positionFromTop(debt);
             String lifoStatus;
             if (lifoPosition == 0) {
                 lifoStatus = "TOS (Top of Stack)";
@@ -478,7 +501,7 @@ public class UserDashboard extends JFrame {
         Collections.sort(sortedDebts, new Comparator<Debt>() {
             @Override
             public int compare(Debt d1, Debt d2) {
-                return Double.compare(d1.getCurrentBalance(), d2.getCurrentBalance()); // Ascending
+                return Long.compare(d1.getCurrentBalanceCents(), d2.getCurrentBalanceCents()); // Ascending
             }
         });
 
@@ -510,7 +533,7 @@ public class UserDashboard extends JFrame {
             message.append("   Min Payment: $").append(String.format("%.2f", debt.getMinimumPayment())).append("\n");
 
             // Show LIFO position
-            int lifoPosition = activeDebts.indexOf(debt);
+            int lifoPosition = service.positionFromTop(debt);
             String lifoStatus;
             if (lifoPosition == 0) {
                 lifoStatus = "TOS (Top of Stack)";
@@ -583,10 +606,34 @@ public class UserDashboard extends JFrame {
         panel.add(fullBtn);
 
         JButton settleBtn = createOrangeButton("SETTLE PAYMENT");
-        settleBtn.setBounds(20, 220, 390, 40);
+        settleBtn.setBounds(20, 212, 390, 36);
         settleBtn.addActionListener(e -> makePayment());
         panel.add(settleBtn);
 
+        // Live hint: how the typed amount would best be split across every debt
+        allocationLabel = new JLabel(" ");
+        allocationLabel.setForeground(Color.GRAY);
+        allocationLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+        allocationLabel.setBounds(20, 252, 460, 18);
+        panel.add(allocationLabel);
+
+        payField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateAllocationHint();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateAllocationHint();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                updateAllocationHint();
+            }
+        });
+
         return panel;
     }
 
@@ -699,8 +746,9 @@ public class UserDashboard extends JFrame {
                 ogAmtLabel.setText(String.format("Original Amount: $%,.2f", topDebt.getOriginalAmount()));
                 minPayLabel.setText(String.format("Min Payment: $%,.2f", topDebt.getMinimumPayment()));
 
-                double progress = ((topDebt.getOriginalAmount() - topDebt.getCurrentBalance())
-                        / topDebt.getOriginalAmount()) * 100;
+                long originalCents = topDebt.getOriginalAmountCents();
+                double progress = originalCents == 0 ? 0
+                        : (originalCents - topDebt.getCurrentBalanceCents()) * 100.0 / originalCents;
                 progressBar.setValue((int) Math.min(100, Math.max(0, progress)));
             } else {
                 cardTitleLabel.setText("No Active Debt");
@@ -1011,10 +1059,8 @@ public class UserDashboard extends JFrame {
                 return;
             }
 
-            Debt newDebt = new Debt(name, amt, ir, min);
-
             // IMPORTANT: Ensure the debt is added as TOS (newest)
-            manager.pushDebt(newDebt);
+            service.push(name, Money.toCents(amt), ir, Money.toCents(min));
 
             // Log with emphasis on it being newest
             log("PUSH: Added " + name + " ($" + String.format("%.2f", amt) + ") as NEW TOS (Newest debt)");
@@ -1047,42 +1093,35 @@ public class UserDashboard extends JFrame {
                 return;
             }
 
-            double amt = Double.parseDouble(paymentText);
+            long amtCents = Money.parse(paymentText);
             Debt top = manager.peekTOS();
 
             if (top != null) {
-                if (amt <= 0) {
+                if (amtCents <= 0) {
                     JOptionPane.showMessageDialog(this, "Payment amount must be greater than 0");
                     return;
                 }
 
-                if (amt > top.getCurrentBalance()) {
+                if (amtCents > top.getCurrentBalanceCents()) {
                     int option = JOptionPane.showConfirmDialog(this,
-                            "Payment amount ($" + String.format("%.2f", amt) +
-                                    ") exceeds current balance ($" + String.format("%.2f", top.getCurrentBalance()) +
+                            "Payment amount ($" + Money.format(amtCents) +
+                                    ") exceeds current balance ($" + Money.format(top.getCurrentBalanceCents()) +
                                     ").\nPay full balance instead?",
                             "Confirm Payment", JOptionPane.YES_NO_OPTION);
                     if (option == JOptionPane.YES_OPTION) {
-                        amt = top.getCurrentBalance();
+                        amtCents = top.getCurrentBalanceCents();
                     } else {
                         return;
                     }
                 }
 
-                top.makePayment(amt);
-                log("PAID: $" + String.format("%.2f", amt) + " to TOS: " + top.getName());
+                DebtTowerService.PaymentResult payment = service.pay(amtCents);
+                log("PAID: $" + Money.format(payment.getPaidCents()) + " to TOS: " + top.getName());
 
-                if (top.isPaidOff()) {
-                    Debt paidOffDebt = manager.popDebt();
-                    // Add to beginning of ArrayList to maintain LIFO order (newest first)
-                    paidOffDebts.add(0, paidOffDebt);
+                if (payment.isPaidOff()) {
                     log("COMPLETED: " + top.getName() + " is now paid off!");
-
-                    if (manager.peekTOS() == null && !auxiliaryDebts.isEmpty()) {
-                        // Remove from beginning of ArrayList (LIFO)
-                        Debt newActive = auxiliaryDebts.remove(0);
-                        manager.pushDebt(newActive);
-                        log("MOVED: " + newActive.getName() + " from auxiliary to active as TOS");
+                    if (payment.getRestored() != null) {
+                        log("MOVED: " + payment.getRestored().getName() + " from auxiliary to active as TOS");
                     }
                 }
 
@@ -1103,12 +1142,63 @@ public class UserDashboard extends JFrame {
 
     private void refreshAll() {
         tosLabel.setText("Current TOS: " + getTopName());
+        allocator.load(manager);
+        updateAllocationHint();
         updateCreditCardPanel();
         towerContainer.repaint();
         mainLayer.revalidate();
         mainLayer.repaint();
     }
 
+    private void updateAllocationHint() {
+        if (allocationLabel == null || allocator.getDebtCount() < 2) {
+            if (allocationLabel != null)
+                allocationLabel.setText(" ");
+            return;
+        }
+        long budget;
+        try {
+            budget = Money.parse(payField.getText().trim());
+        } catch (NumberFormatException | ArithmeticException e) {
+            allocationLabel.setText(" ");
+            return;
+        }
+        if (budget <= 0) {
+            allocationLabel.setText(" ");
+            return;
+        }
+
+        allocator.solve(budget, PaymentAllocator.Objective.LEAST_INTEREST);
+
+        // Newest debts first in the label, the full split in the tooltip
+        StringBuilder hint = new StringBuilder("Best split: ");
+        StringBuilder tip = new StringBuilder("<html>Least-interest split of $" + Money.format(budget) + ":<br>");
+        int shown = 0;
+        int paid = 0;
+        for (int i = allocator.getDebtCount() - 1; i >= 0; i--) {
+            long share = allocator.getAllocationCents(i);
+            if (share <= 0)
+                continue;
+            paid++;
+            tip.append(allocator.getDebtName(i)).append(": $").append(Money.format(share)).append("<br>");
+            if (shown < 2) {
+                hint.append(shown > 0 ? ", " : "").append(allocator.getDebtName(i)).append(" $")
+                        .append(Money.format(share));
+                shown++;
+            }
+        }
+        if (paid > shown)
+            hint.append(" +").append(paid - shown).append(" more");
+        if (allocator.isBelowMinimums()) {
+            hint.append(" (below minimums)");
+        } else if (allocator.isDebtFree()) {
+            hint.append(" - debt-free in ").append(allocator.getMonths()).append(" mo");
+        }
+        tip.append("Total interest: $").append(Money.format(allocator.getTotalInterestCents())).append("</html>");
+        allocationLabel.setText(hint.toString());
+        allocationLabel.setToolTipText(tip.toString());
+    }
+
     private String getTopName() {
         Debt d = manager.peekTOS();
         return d != null ? d.getName() + " (Position: TOS)" : "None";
@@ -1149,40 +1239,8 @@ public class UserDashboard extends JFrame {
         debtName = debtName.trim();
 
         // Search for the debt in all stacks
-        Debt foundDebt = null;
-        String debtLocation = "";
-
-        // Search in active stack
-        ArrayList<Debt> activeDebts = getDebtsForVisualization();
-        for (Debt debt : activeDebts) {
-            if (debt.getName().equalsIgnoreCase(debtName)) {
-                foundDebt = debt;
-                debtLocation = "Active Stack";
-                break;
-            }
-        }
-
-        // Search in auxiliary stack
-        if (foundDebt == null) {
-            for (Debt debt : auxiliaryDebts) {
-                if (debt.getName().equalsIgnoreCase(debtName)) {
-                    foundDebt = debt;
-                    debtLocation = "Auxiliary Stack";
-                    break;
-                }
-            }
-        }
-
-        // Search in paid-off stack
-        if (foundDebt == null) {
-            for (Debt debt : paidOffDebts) {
-                if (debt.getName().equalsIgnoreCase(debtName)) {
-                    foundDebt = debt;
-                    debtLocation = "Paid-Off Stack";
-                    break;
-                }
-            }
-        }
+        Debt foundDebt = service.find(debtName);
+        String debtLocation = foundDebt != null ? service.locate(foundDebt).getLabel() : "";
 
         if (foundDebt == null) {
             JOptionPane.showMessageDialog(this,
@@ -1237,9 +1295,9 @@ public class UserDashboard extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             try {
                 // Get new values
-                double newBalance = Double.parseDouble(newBalanceField.getText().trim());
+                long newBalance = Money.parse(newBalanceField.getText());
                 double newInterest = Double.parseDouble(newInterestField.getText().trim());
-                double newMinPayment = Double.parseDouble(newMinPaymentField.getText().trim());
+                long newMinPayment = Money.parse(newMinPaymentField.getText());
                 String newName = newNameField.getText().trim();
 
                 // Validate
@@ -1247,77 +1305,20 @@ public class UserDashboard extends JFrame {
                     throw new NumberFormatException("Negative values not allowed");
                 }
 
-                // Update debt (Note: Debt class needs setters for this to work)
-                // Since Debt class doesn't have setters, we need to create a new debt
-                // and replace the old one in the appropriate stack
-
-                // Create updated debt
-                Debt updatedDebt = new Debt(
-                        newName.isEmpty() ? foundDebt.getName() : newName,
-                        newBalance,
-                        newInterest,
-                        newMinPayment);
-
-                // Replace in appropriate stack
-                if (debtLocation.equals("Active Stack")) {
-                    // Find and replace in active stack
-                    Stack<Debt> tempStack = new Stack<>();
-                    boolean replaced = false;
-
-                    // Pop until we find the debt
-                    while (!manager.getStackForVisualization().isEmpty()) {
-                        Debt current = manager.popDebt();
-                        if (current.getName().equals(foundDebt.getName())) {
-                            // Found it, push the updated version
-                            tempStack.push(updatedDebt);
-                            replaced = true;
-                        } else {
-                            tempStack.push(current);
-                        }
-                    }
+                String oldName = foundDebt.getName();
+                String updatedName = newName.isEmpty() ? oldName : newName;
 
-                    // Push everything back
-                    while (!tempStack.isEmpty()) {
-                        manager.pushDebt(tempStack.pop());
-                    }
-
-                    if (!replaced) {
-                        // Try to find in the visualization list
-                        for (int i = 0; i < activeDebts.size(); i++) {
-                            if (activeDebts.get(i).getName().equals(foundDebt.getName())) {
-                                activeDebts.set(i, updatedDebt);
-                                replaced = true;
-                                break;
-                            }
-                        }
-                    }
-                } else if (debtLocation.equals("Auxiliary Stack")) {
-                    // Replace in auxiliary
-                    for (int i = 0; i < auxiliaryDebts.size(); i++) {
-                        if (auxiliaryDebts.get(i).getName().equals(foundDebt.getName())) {
-                            auxiliaryDebts.set(i, updatedDebt);
-                            break;
-                        }
-                    }
-                } else if (debtLocation.equals("Paid-Off Stack")) {
-                    // Replace in paid-off
-                    for (int i = 0; i < paidOffDebts.size(); i++) {
-                        if (paidOffDebts.get(i).getName().equals(foundDebt.getName())) {
-                            paidOffDebts.set(i, updatedDebt);
-                            break;
-                        }
-                    }
-                }
+                service.update(foundDebt.getDebtId(), updatedName, newBalance, newInterest, newMinPayment);
 
-                log("UPDATED: Debt '" + foundDebt.getName() + "' updated in " + debtLocation);
-                addEventToCalendar("Updated debt: " + foundDebt.getName() + " in " + debtLocation);
+                log("UPDATED: Debt '" + oldName + "' updated in " + debtLocation);
+                addEventToCalendar("Updated debt: " + oldName + " in " + debtLocation);
 
                 JOptionPane.showMessageDialog(this,
                         "Debt updated successfully!\n" +
                                 "Location: " + debtLocation + "\n" +
-                                "New Balance: $" + String.format("%.2f", newBalance) + "\n" +
+                                "New Balance: $" + Money.format(newBalance) + "\n" +
                                 "New Interest Rate: " + newInterest + "%\n" +
-                                "New Minimum Payment: $" + String.format("%.2f", newMinPayment),
+                                "New Minimum Payment: $" + Money.format(newMinPayment),
                         "Update Successful",
                         JOptionPane.INFORMATION_MESSAGE);
 
@@ -1341,7 +1342,7 @@ public class UserDashboard extends JFrame {
     private void onTraversalClicked() {
         // Show options for search or filter
         String[] options = { "Search Debt by Name", "Filter by Amount Range", "Filter by Interest Rate",
-                "Show All Debts" };
+                "Combined Query", "Show All Debts" };
         int choice = JOptionPane.showOptionDialog(this,
                 "Choose traversal method:",
                 "Debt Search & Filter",
@@ -1364,69 +1365,117 @@ public class UserDashboard extends JFrame {
             case 2: // Filter by interest rate
                 filterByInterestRate();
                 break;
-            case 3: // Show all debts
+            case 3: // Name, ranges, stacks and order together
+                runCombinedQuery();
+                break;
+            case 4: // Show all debts
                 showAllDebts();
                 break;
         }
     }
 
     private void searchDebtByName() {
-        String searchTerm = JOptionPane.showInputDialog(this,
-                "Enter debt name to search (partial names allowed):",
-                "Search Debt",
-                JOptionPane.QUESTION_MESSAGE);
+        String searchTerm = promptLiveSearch();
 
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return;
         }
 
         searchTerm = searchTerm.trim().toLowerCase();
-        ArrayList<Debt> allDebts = getAllDebts();
-        ArrayList<Debt> foundDebts = new ArrayList<>();
+        // Answered from the manager's name index, in pillar order
+        DebtQuery query = service.query().nameContains(searchTerm);
+        int found = showQueryResults(query, "Search Results", "Search Results for '" + searchTerm + "'");
 
-        for (Debt debt : allDebts) {
-            if (debt.getName().toLowerCase().contains(searchTerm)) {
-                foundDebts.add(debt);
-            }
-        }
+        log("SEARCH: Searched for debt name containing '" + searchTerm + "' - Found " + found + " result(s)");
+    }
 
-        if (foundDebts.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "No debts found matching: " + searchTerm,
-                    "Search Results",
-                    JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
+    // Search field whose suggestions update on every keystroke; double-click a
+    // suggestion to take its name. Returns the typed text (null if cancelled)
+    private String promptLiveSearch() {
+        JTextField searchField = new JTextField(28);
+        DefaultListModel<Debt> suggestions = new DefaultListModel<>();
+        JList<Debt> suggestionList = new JList<>(suggestions);
+        suggestionList.setVisibleRowCount(8);
+        suggestionList.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        suggestionList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                    boolean isSelected, boolean cellHasFocus) {
+                Debt debt = (Debt) value;
+                String text = debt.getName() + "  (" + getDebtLocation(debt) + ", $"
+                        + String.format("%.2f", debt.getCurrentBalance()) + ")";
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        JLabel statusLabel = new JLabel(" ");
+        statusLabel.setForeground(Color.GRAY);
+        statusLabel.setFont(new Font("SansSerif", Font.PLAIN, 11));
+
+        Runnable refresh = () -> {
+            suggestions.clear();
+            String query = searchField.getText().trim();
+            if (query.isEmpty()) {
+                statusLabel.setText(" ");
+                return;
+            }
+            java.util.List<Debt> matches = service.searchByName(query, LIVE_SEARCH_LIMIT);
+            for (Debt debt : matches) {
+                suggestions.addElement(debt);
+            }
+            statusLabel.setText(matches.isEmpty() ? "No close matches" : "Closest " + matches.size() + " match(es)");
+        };
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                refresh.run();
+            }
 
-        // Display results
-        StringBuilder result = new StringBuilder();
-        result.append("Search Results for '").append(searchTerm).append("':\n");
-        result.append("================================\n\n");
-        result.append("Found ").append(foundDebts.size()).append(" debt(s):\n\n");
-
-        for (int i = 0; i < foundDebts.size(); i++) {
-            Debt debt = foundDebts.get(i);
-            result.append(i + 1).append(". ").append(debt.getName()).append("\n");
-            result.append("   Balance: $").append(String.format("%.2f", debt.getCurrentBalance())).append("\n");
-            result.append("   Interest: ").append(debt.getInterestRate()).append("%\n");
-            result.append("   Min Payment: $").append(String.format("%.2f", debt.getMinimumPayment())).append("\n");
-            result.append("   Location: ").append(getDebtLocation(debt)).append("\n\n");
-        }
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                refresh.run();
+            }
 
-        JTextArea textArea = new JTextArea(result.toString());
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                refresh.run();
+            }
+        });
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Debt picked = suggestionList.getSelectedValue();
+                if (e.getClickCount() == 2 && picked != null) {
+                    searchField.setText(picked.getName());
+                }
+            }
+        });
+        // Type straight away, without clicking into the field first
+        searchField.addAncestorListener(new AncestorListener() {
+            @Override
+            public void ancestorAdded(AncestorEvent e) {
+                searchField.requestFocusInWindow();
+            }
 
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(500, 400));
+            @Override
+            public void ancestorRemoved(AncestorEvent e) {
+            }
 
-        JOptionPane.showMessageDialog(this,
-                scrollPane,
-                "Search Results",
-                JOptionPane.INFORMATION_MESSAGE);
+            @Override
+            public void ancestorMoved(AncestorEvent e) {
+            }
+        });
 
-        log("SEARCH: Searched for debt name containing '" + searchTerm + "' - Found " + foundDebts.size()
-                + " result(s)");
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        JPanel top = new JPanel(new BorderLayout(5, 5));
+        top.add(new JLabel("Enter debt name to search (partial names allowed):"), BorderLayout.NORTH);
+        top.add(searchField, BorderLayout.CENTER);
+        panel.add(top, BorderLayout.NORTH);
+        panel.add(new JScrollPane(suggestionList), BorderLayout.CENTER);
+        panel.add(statusLabel, BorderLayout.SOUTH);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Search Debt",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        return result == JOptionPane.OK_OPTION ? searchField.getText() : null;
     }
 
     private void filterByAmountRange() {
@@ -1458,24 +1507,16 @@ public class UserDashboard extends JFrame {
                     throw new NumberFormatException("Invalid range");
                 }
 
-                ArrayList<Debt> allDebts = getAllDebts();
-                ArrayList<Debt> filteredDebts = new ArrayList<>();
-
-                for (Debt debt : allDebts) {
-                    double balance = debt.getCurrentBalance();
-                    if (balance >= minAmount && balance <= maxAmount) {
-                        filteredDebts.add(debt);
-                    }
-                }
-
-                displayFilterResults(filteredDebts,
-                        "Amount Range: $" + String.format("%.2f", minAmount) +
-                                " to $" + String.format("%.2f", maxAmount));
+                String criteria = "Amount Range: $" + String.format("%.2f", minAmount) +
+                        " to $" + String.format("%.2f", maxAmount);
+                int found = showQueryResults(
+                        service.query().balanceBetween(Money.toCents(minAmount), Money.toCents(maxAmount)),
+                        "Filter Results", "Filter: " + criteria);
 
                 log("FILTER: Filtered debts by amount range $" +
                         String.format("%.2f", minAmount) + " to $" +
                         String.format("%.2f", maxAmount) + " - Found " +
-                        filteredDebts.size() + " result(s)");
+                        found + " result(s)");
 
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
@@ -1516,24 +1557,15 @@ public class UserDashboard extends JFrame {
                     throw new NumberFormatException("Invalid range");
                 }
 
-                ArrayList<Debt> allDebts = getAllDebts();
-                ArrayList<Debt> filteredDebts = new ArrayList<>();
-
-                for (Debt debt : allDebts) {
-                    double rate = debt.getInterestRate();
-                    if (rate >= minRate && rate <= maxRate) {
-                        filteredDebts.add(debt);
-                    }
-                }
-
-                displayFilterResults(filteredDebts,
-                        "Interest Rate Range: " + String.format("%.1f", minRate) +
-                                "% to " + String.format("%.1f", maxRate) + "%");
+                String criteria = "Interest Rate Range: " + String.format("%.1f", minRate) +
+                        "% to " + String.format("%.1f", maxRate) + "%";
+                int found = showQueryResults(service.query().rateBetween(minRate, maxRate),
+                        "Filter Results", "Filter: " + criteria);
 
                 log("FILTER: Filtered debts by interest rate " +
                         String.format("%.1f", minRate) + "% to " +
                         String.format("%.1f", maxRate) + "% - Found " +
-                        filteredDebts.size() + " result(s)");
+                        found + " result(s)");
 
             } catch (NumberFormatException e) {
                 JOptionPane.showMessageDialog(this,
@@ -1545,190 +1577,232 @@ public class UserDashboard extends JFrame {
         }
     }
 
-    private void showAllDebts() {
-        ArrayList<Debt> allDebts = getAllDebts();
+    // Name, amount, rate and pillar filters together, in a chosen order. Blank
+    // fields don't filter
+    private void runCombinedQuery() {
+        JPanel queryPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        JTextField nameField = new JTextField();
+        JTextField minAmountField = new JTextField();
+        JTextField maxAmountField = new JTextField();
+        JTextField minRateField = new JTextField();
+        JTextField maxRateField = new JTextField();
+        JCheckBox activeBox = new JCheckBox("Active", true);
+        JCheckBox auxiliaryBox = new JCheckBox("Auxiliary", true);
+        JCheckBox paidOffBox = new JCheckBox("Paid-Off", true);
+        JPanel pillarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        pillarPanel.add(activeBox);
+        pillarPanel.add(auxiliaryBox);
+        pillarPanel.add(paidOffBox);
+        String[] orders = { "Stack order (TOS first)", "Smallest balance first", "Highest interest first" };
+        JComboBox<String> orderBox = new JComboBox<>(orders);
+
+        queryPanel.add(new JLabel("Name contains:"));
+        queryPanel.add(nameField);
+        queryPanel.add(new JLabel("Minimum Amount ($):"));
+        queryPanel.add(minAmountField);
+        queryPanel.add(new JLabel("Maximum Amount ($):"));
+        queryPanel.add(maxAmountField);
+        queryPanel.add(new JLabel("Minimum Interest Rate (%):"));
+        queryPanel.add(minRateField);
+        queryPanel.add(new JLabel("Maximum Interest Rate (%):"));
+        queryPanel.add(maxRateField);
+        queryPanel.add(new JLabel("Stacks:"));
+        queryPanel.add(pillarPanel);
+        queryPanel.add(new JLabel("Order:"));
+        queryPanel.add(orderBox);
+
+        int result = JOptionPane.showConfirmDialog(this,
+                queryPanel,
+                "Combined Query",
+                JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION)
+            return;
 
-        if (allDebts.isEmpty()) {
+        EnumSet<DebtManager.Pillar> pillars = EnumSet.noneOf(DebtManager.Pillar.class);
+        if (activeBox.isSelected())
+            pillars.add(DebtManager.Pillar.ACTIVE);
+        if (auxiliaryBox.isSelected())
+            pillars.add(DebtManager.Pillar.AUXILIARY);
+        if (paidOffBox.isSelected())
+            pillars.add(DebtManager.Pillar.PAID_OFF);
+        if (pillars.isEmpty()) {
             JOptionPane.showMessageDialog(this,
-                    "No debts found in any stack.",
-                    "All Debts",
-                    JOptionPane.INFORMATION_MESSAGE);
+                    "Select at least one stack.",
+                    "Invalid Input",
+                    JOptionPane.ERROR_MESSAGE);
             return;
         }
 
-        // Group by location
-        ArrayList<Debt> activeDebts = getDebtsForVisualization();
-        ArrayList<Debt> auxiliaryDebtsList = auxiliaryDebts;
-        ArrayList<Debt> paidOffDebtsList = paidOffDebts;
-
-        StringBuilder result = new StringBuilder();
-        result.append("ALL DEBTS - COMPLETE OVERVIEW\n");
-        result.append("=============================\n\n");
-
-        result.append("TOTAL DEBTS: ").append(allDebts.size()).append("\n\n");
-
-        // Active Debts
-        result.append("ACTIVE DEBTS (").append(activeDebts.size()).append("):\n");
-        result.append("-----------------\n");
-        if (activeDebts.isEmpty()) {
-            result.append("  No active debts\n\n");
-        } else {
-            for (int i = 0; i < activeDebts.size(); i++) {
-                Debt debt = activeDebts.get(i);
-                result.append("  ").append(i + 1).append(". ").append(debt.getName()).append("\n");
-                result.append("     Balance: $").append(String.format("%.2f", debt.getCurrentBalance())).append("\n");
-                result.append("     Interest: ").append(debt.getInterestRate()).append("%\n");
-                result.append("     Position: ").append(i == 0 ? "TOS (Newest)" : "#" + i + " from top").append("\n\n");
+        try {
+            DebtQuery query = service.query().nameContains(nameField.getText());
+            StringBuilder criteria = new StringBuilder();
+            if (!nameField.getText().trim().isEmpty()) {
+                criteria.append("name contains '").append(nameField.getText().trim()).append("'; ");
             }
-        }
-
-        // Auxiliary Debts
-        result.append("AUXILIARY DEBTS (").append(auxiliaryDebtsList.size()).append("):\n");
-        result.append("--------------------\n");
-        if (auxiliaryDebtsList.isEmpty()) {
-            result.append("  No auxiliary debts\n\n");
-        } else {
-            for (int i = 0; i < auxiliaryDebtsList.size(); i++) {
-                Debt debt = auxiliaryDebtsList.get(i);
-                result.append("  ").append(i + 1).append(". ").append(debt.getName()).append("\n");
-                result.append("     Balance: $").append(String.format("%.2f", debt.getCurrentBalance())).append("\n");
-                result.append("     Interest: ").append(debt.getInterestRate()).append("%\n\n");
+            if (!minAmountField.getText().trim().isEmpty() || !maxAmountField.getText().trim().isEmpty()) {
+                long minCents = parseCentsOr(minAmountField, Long.MIN_VALUE);
+                long maxCents = parseCentsOr(maxAmountField, Long.MAX_VALUE);
+                if (minCents > maxCents)
+                    throw new NumberFormatException("Invalid range");
+                query.balanceBetween(minCents, maxCents);
+                criteria.append("amount ").append(minAmountField.getText().trim()).append(" to ")
+                        .append(maxAmountField.getText().trim()).append("; ");
             }
-        }
-
-        // Paid-Off Debts
-        result.append("PAID-OFF DEBTS (").append(paidOffDebtsList.size()).append("):\n");
-        result.append("-------------------\n");
-        if (paidOffDebtsList.isEmpty()) {
-            result.append("  No paid-off debts\n");
-        } else {
-            for (int i = 0; i < paidOffDebtsList.size(); i++) {
-                Debt debt = paidOffDebtsList.get(i);
-                result.append("  ").append(i + 1).append(". ").append(debt.getName()).append("\n");
-                result.append("     Original: $").append(String.format("%.2f", debt.getOriginalAmount())).append("\n");
-                result.append("     Status: PAID OFF\n\n");
+            if (!minRateField.getText().trim().isEmpty() || !maxRateField.getText().trim().isEmpty()) {
+                double minRate = minRateField.getText().trim().isEmpty() ? Double.NEGATIVE_INFINITY
+                        : Double.parseDouble(minRateField.getText().trim());
+                double maxRate = maxRateField.getText().trim().isEmpty() ? Double.POSITIVE_INFINITY
+                        : Double.parseDouble(maxRateField.getText().trim());
+                if (minRate > maxRate)
+                    throw new NumberFormatException("Invalid range");
+                query.rateBetween(minRate, maxRate);
+                criteria.append("rate ").append(minRateField.getText().trim()).append("% to ")
+                        .append(maxRateField.getText().trim()).append("%; ");
             }
+            DebtManager.Pillar[] selected = pillars.toArray(new DebtManager.Pillar[0]);
+            query.on(selected[0], Arrays.copyOfRange(selected, 1, selected.length));
+            criteria.append("stacks ").append(pillars).append("; ").append(orders[orderBox.getSelectedIndex()]);
+            DebtManager.Strategy[] orderStrategies = { DebtManager.Strategy.LIFO, DebtManager.Strategy.SNOWBALL,
+                    DebtManager.Strategy.AVALANCHE };
+            query.orderBy(orderStrategies[orderBox.getSelectedIndex()]);
+
+            int found = showQueryResults(query, "Query Results", "Query: " + criteria);
+            log("FILTER: Combined query (" + criteria + ") - Found " + found + " result(s)");
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Please enter valid numbers for the ranges.\n" +
+                            "Minimum must be less than or equal to maximum.",
+                    "Invalid Input",
+                    JOptionPane.ERROR_MESSAGE);
         }
+    }
 
-        // Summary
-        double totalActiveBalance = activeDebts.stream().mapToDouble(Debt::getCurrentBalance).sum();
-        double totalAuxiliaryBalance = auxiliaryDebtsList.stream().mapToDouble(Debt::getCurrentBalance).sum();
-        double totalOriginalPaid = paidOffDebtsList.stream().mapToDouble(Debt::getOriginalAmount).sum();
-
-        result.append("\nSUMMARY:\n");
-        result.append("--------\n");
-        result.append("Total Active Balance: $").append(String.format("%.2f", totalActiveBalance)).append("\n");
-        result.append("Total Auxiliary Balance: $").append(String.format("%.2f", totalAuxiliaryBalance)).append("\n");
-        result.append("Total Paid Off Amount: $").append(String.format("%.2f", totalOriginalPaid)).append("\n");
-        result.append("Grand Total (All Debts): $")
-                .append(String.format("%.2f", totalActiveBalance + totalAuxiliaryBalance + totalOriginalPaid))
-                .append("\n");
-
-        JTextArea textArea = new JTextArea(result.toString());
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(600, 500));
-
-        JOptionPane.showMessageDialog(this,
-                scrollPane,
-                "All Debts Overview",
-                JOptionPane.INFORMATION_MESSAGE);
-
-        log("TRAVERSAL: Viewed all debts - Total: " + allDebts.size());
+    private long parseCentsOr(JTextField field, long blank) {
+        String text = field.getText().trim();
+        return text.isEmpty() ? blank : Money.toCents(Double.parseDouble(text));
     }
 
-    private void displayFilterResults(ArrayList<Debt> filteredDebts, String filterCriteria) {
-        if (filteredDebts.isEmpty()) {
+    private void showAllDebts() {
+        DebtQuery query = service.query();
+        int total = query.count();
+
+        if (total == 0) {
             JOptionPane.showMessageDialog(this,
-                    "No debts found matching the filter criteria:\n" + filterCriteria,
-                    "Filter Results",
+                    "No debts found in any stack.",
+                    "All Debts",
                     JOptionPane.INFORMATION_MESSAGE);
             return;
         }
 
-        StringBuilder result = new StringBuilder();
-        result.append("FILTER RESULTS\n");
-        result.append("==============\n");
-        result.append("Filter: ").append(filterCriteria).append("\n");
-        result.append("Found ").append(filteredDebts.size()).append(" debt(s):\n\n");
-
-        // Group by location for better organization
-        Map<String, ArrayList<Debt>> groupedDebts = new LinkedHashMap<>();
-        groupedDebts.put("Active Stack", new ArrayList<>());
-        groupedDebts.put("Auxiliary Stack", new ArrayList<>());
-        groupedDebts.put("Paid-Off Stack", new ArrayList<>());
-
-        for (Debt debt : filteredDebts) {
-            String location = getDebtLocation(debt);
-            groupedDebts.get(location).add(debt);
+        // Summary over every pillar (sums only, the listing itself is paged)
+        long totalActiveBalance = manager.getTotalBalanceCents();
+        long totalAuxiliaryBalance = 0;
+        for (Debt debt : manager.getAuxiliaryView()) {
+            totalAuxiliaryBalance += debt.getCurrentBalanceCents();
+        }
+        long totalOriginalPaid = 0;
+        for (Debt debt : manager.getPaidOffView()) {
+            totalOriginalPaid += debt.getOriginalAmountCents();
         }
 
-        for (Map.Entry<String, ArrayList<Debt>> entry : groupedDebts.entrySet()) {
-            String location = entry.getKey();
-            ArrayList<Debt> debts = entry.getValue();
+        StringBuilder header = new StringBuilder();
+        header.append("ALL DEBTS - COMPLETE OVERVIEW\n");
+        header.append("=============================\n");
+        header.append("Active: ").append(manager.getStackView().size())
+                .append("  Auxiliary: ").append(manager.getAuxiliaryView().size())
+                .append("  Paid-Off: ").append(manager.getPaidOffView().size()).append("\n");
+        header.append("Total Active Balance: $").append(Money.format(totalActiveBalance)).append("\n");
+        header.append("Total Auxiliary Balance: $").append(Money.format(totalAuxiliaryBalance)).append("\n");
+        header.append("Total Paid Off Amount: $").append(Money.format(totalOriginalPaid)).append("\n");
+        header.append("Grand Total (All Debts): $")
+                .append(Money.format(totalActiveBalance + totalAuxiliaryBalance + totalOriginalPaid));
+
+        showQueryResults(query, "All Debts Overview", header.toString());
+
+        log("TRAVERSAL: Viewed all debts - Total: " + total);
+    }
 
-            if (!debts.isEmpty()) {
-                result.append(location).append(" (").append(debts.size()).append("):\n");
-                result.append("-".repeat(location.length() + 4)).append("\n");
-
-                for (int i = 0; i < debts.size(); i++) {
-                    Debt debt = debts.get(i);
-                    result.append("  ").append(i + 1).append(". ").append(debt.getName()).append("\n");
-                    result.append("     Balance: $").append(String.format("%.2f", debt.getCurrentBalance()))
-                            .append("\n");
-                    result.append("     Interest: ").append(debt.getInterestRate()).append("%\n");
-                    result.append("     Min Payment: $").append(String.format("%.2f", debt.getMinimumPayment()))
-                            .append("\n");
-
-                    if (location.equals("Active Stack")) {
-                        // Find position in active stack
-                        ArrayList<Debt> activeDebts = getDebtsForVisualization();
-                        int position = activeDebts.indexOf(debt);
-                        if (position == 0) {
-                            result.append("     Position: TOS (Top of Stack)\n");
-                        } else if (position > 0) {
-                            result.append("     Position: #").append(position).append(" from top\n");
-                        }
-                    }
-                    result.append("\n");
-                }
-                result.append("\n");
-            }
+    // Shows a query's results a page at a time. Each page re-runs the query with
+    // an offset and a limit, so turning a page costs about one page of work.
+    // Returns the total number of results.
+    private int showQueryResults(DebtQuery query, String title, String header) {
+        int total = query.offset(0).limit(Integer.MAX_VALUE).count();
+        if (total == 0) {
+            JOptionPane.showMessageDialog(this,
+                    "No debts found matching:\n" + header,
+                    title,
+                    JOptionPane.INFORMATION_MESSAGE);
+            return 0;
         }
 
-        JTextArea textArea = new JTextArea(result.toString());
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        int pages = (total + RESULTS_PAGE_SIZE - 1) / RESULTS_PAGE_SIZE;
+        int page = 0;
+        while (true) {
+            int first = page * RESULTS_PAGE_SIZE;
+            StringBuilder result = new StringBuilder(header).append("\n");
+            result.append("Found ").append(total).append(" debt(s)");
+            if (pages > 1) {
+                result.append(" - page ").append(page + 1).append(" of ").append(pages);
+            }
+            result.append(":\n\n");
 
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(550, 450));
+            int number = first;
+            for (DebtQuery.Cursor cursor = query.offset(first).limit(RESULTS_PAGE_SIZE).cursor(); cursor.hasNext();) {
+                appendDebtRow(result, ++number, cursor.next());
+            }
 
-        JOptionPane.showMessageDialog(this,
-                scrollPane,
-                "Filter Results: " + filterCriteria,
-                JOptionPane.INFORMATION_MESSAGE);
+            JTextArea textArea = new JTextArea(result.toString());
+            textArea.setEditable(false);
+            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            textArea.setCaretPosition(0);
+
+            JScrollPane scrollPane = new JScrollPane(textArea);
+            scrollPane.setPreferredSize(new Dimension(550, 450));
+
+            ArrayList<String> options = new ArrayList<>();
+            if (page > 0)
+                options.add("Previous");
+            if (page + 1 < pages)
+                options.add("Next");
+            options.add("Close");
+            int choice = JOptionPane.showOptionDialog(this,
+                    scrollPane,
+                    title,
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.INFORMATION_MESSAGE,
+                    null,
+                    options.toArray(),
+                    options.get(options.size() - 1));
+
+            String picked = choice >= 0 ? options.get(choice) : "Close";
+            if (picked.equals("Previous")) {
+                page--;
+            } else if (picked.equals("Next")) {
+                page++;
+            } else {
+                return total;
+            }
+        }
     }
 
-    private ArrayList<Debt> getAllDebts() {
-        ArrayList<Debt> allDebts = new ArrayList<>();
-        allDebts.addAll(getDebtsForVisualization());
-        allDebts.addAll(auxiliaryDebts);
-        allDebts.addAll(paidOffDebts);
-        return allDebts;
+    private void appendDebtRow(StringBuilder result, int number, Debt debt) {
+        result.append("  ").append(number).append(". ").append(debt.getName()).append("\n");
+        result.append("     Balance: $").append(String.format("%.2f", debt.getCurrentBalance())).append("\n");
+        result.append("     Interest: ").append(debt.getInterestRate()).append("%\n");
+        result.append("     Min Payment: $").append(String.format("%.2f", debt.getMinimumPayment())).append("\n");
+        result.append("     Location: ").append(getDebtLocation(debt));
+        int position = service.positionFromTop(debt);
+        if (position == 0) {
+            result.append(" (Top)");
+        } else if (position > 0) {
+            result.append(" (#").append(position).append(" from top)");
+        }
+        result.append("\n\n");
     }
 
     private String getDebtLocation(Debt debt) {
-        ArrayList<Debt> activeDebts = getDebtsForVisualization();
-        if (activeDebts.contains(debt)) {
-            return "Active Stack";
-        } else if (auxiliaryDebts.contains(debt)) {
-            return "Auxiliary Stack";
-        } else if (paidOffDebts.contains(debt)) {
-            return "Paid-Off Stack";
-        }
-        return "Unknown";
+        return service.locate(debt).getLabel();
     }
 
     private void onAuxiliary() {
@@ -1758,9 +1832,7 @@ public class UserDashboard extends JFrame {
                             "Confirm Move to Auxiliary", JOptionPane.YES_NO_OPTION);
 
                     if (confirm == JOptionPane.YES_OPTION) {
-                        Debt movedDebt = manager.popDebt();
-                        // Add to beginning of ArrayList to maintain LIFO order (newest first)
-                        auxiliaryDebts.add(0, movedDebt);
+                        Debt movedDebt = service.moveToAuxiliary();
                         log("MOVED: " + movedDebt.getName() + " from TOS to auxiliary (Password verified)");
 
                         Debt newTOS = manager.peekTOS();
@@ -1820,7 +1892,7 @@ public class UserDashboard extends JFrame {
                         JOptionPane.ERROR_MESSAGE);
 
                 if (finalConfirm == JOptionPane.YES_OPTION) {
-                    manager.popDebt();
+                    service.deleteTOS();
                     log("DELETED: " + top.getName() + " from TOS (Confirmed twice)");
                     addEventToCalendar("Deleted debt: " + top.getName());
 
@@ -1852,16 +1924,90 @@ public class UserDashboard extends JFrame {
         }
     }
 
-    private void onProfileClicked() {
-        ArrayList<Debt> activeDebtsList = getDebtsForVisualization();
-        int activeDebts = activeDebtsList != null ? activeDebtsList.size() : 0;
-        double totalBalance = 0;
+    private void onForecastClicked() {
+        PayoffForecaster forecaster = new PayoffForecaster(manager);
+        if (forecaster.getDebtCount() == 0) {
+            JOptionPane.showMessageDialog(this, "No active debts to forecast!", "Payoff Forecast",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        long minimumBudget = forecaster.getMinimumBudgetCents();
+        String budgetText = JOptionPane.showInputDialog(this,
+                "Monthly budget for all debts ($):\n(minimum payments total $" + Money.format(minimumBudget) + ")",
+                Money.format(minimumBudget));
+        if (budgetText == null) {
+            return;
+        }
+        long budget;
+        try {
+            budget = Money.parse(budgetText.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid amount", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (budget <= 0) {
+            JOptionPane.showMessageDialog(this, "Budget must be greater than 0");
+            return;
+        }
 
-        if (activeDebts > 0) {
-            for (Debt debt : activeDebtsList) {
-                totalBalance += debt.getCurrentBalance();
+        log("Forecasting payoff for a $" + Money.format(budget) + " monthly budget...");
+        // 100k paths run on a parallel stream, off the EDT
+        new SwingWorker<PayoffForecaster.Forecast, Void>() {
+            @Override
+            protected PayoffForecaster.Forecast doInBackground() {
+                return forecaster.forecast(budget, FORECAST_PATHS, System.nanoTime());
             }
+
+            @Override
+            protected void done() {
+                try {
+                    showForecast(get());
+                } catch (Exception ex) {
+                    System.err.println("Error forecasting payoff: " + ex.getMessage());
+                    JOptionPane.showMessageDialog(UserDashboard.this, "Forecast failed: " + ex.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showForecast(PayoffForecaster.Forecast forecast) {
+        SimpleDateFormat monthFormat = new SimpleDateFormat("MMM yyyy");
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%,d simulated paths, $%s per month%n", forecast.getPaths(),
+                Money.format(forecast.getMonthlyBudgetCents())));
+        sb.append("Rates may change, payments may be missed and windfalls may arrive.\n\n");
+        sb.append(String.format("%-10s %-10s %-10s %-10s %10s %14s%n",
+                "Strategy", "P10", "P50", "P90", "Debt-free", "Mean interest"));
+        for (DebtManager.Strategy strategy : DebtManager.Strategy.values()) {
+            PayoffForecaster.Distribution d = forecast.getDistribution(strategy);
+            sb.append(String.format("%-10s %-10s %-10s %-10s %9.1f%% %14s%n",
+                    strategy,
+                    formatPayoff(d.getPayoffDate(10), monthFormat),
+                    formatPayoff(d.getPayoffDate(50), monthFormat),
+                    formatPayoff(d.getPayoffDate(90), monthFormat),
+                    d.getDebtFreeProbability() * 100,
+                    "$" + Money.format(d.getMeanInterestCents())));
         }
+        sb.append("\nBest strategy: ").append(forecast.getBestStrategy());
+        log("Forecast finished, best strategy: " + forecast.getBestStrategy());
+
+        JTextArea area = new JTextArea(sb.toString());
+        area.setEditable(false);
+        area.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Payoff Forecast",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private String formatPayoff(Date date, SimpleDateFormat format) {
+        return date != null ? format.format(date) : "never";
+    }
+
+    private void onProfileClicked() {
+        ArrayList<Debt> activeDebtsList = getDebtsForVisualization();
+        int activeDebts = activeDebtsList != null ? activeDebtsList.size() : 0;
+        long totalBalance = manager.getTotalBalanceCents();
 
         JOptionPane.showMessageDialog(this,
                 "User Profile:\n" +
@@ -1873,9 +2019,9 @@ public class UserDashboard extends JFrame {
                         + (controller.getCurrentUser() != null ? controller.getCurrentUser().getEmail() : "N/A") + "\n"
                         +
                         "Active Debts: " + activeDebts + " (Stack Size)\n" +
-                        "Total Active Balance: $" + String.format("%.2f", totalBalance) + "\n" +
-                        "Auxiliary Debts: " + auxiliaryDebts.size() + "\n" +
-                        "Paid-off Debts: " + paidOffDebts.size() + "\n" +
+                        "Total Active Balance: $" + Money.format(totalBalance) + "\n" +
+                        "Auxiliary Debts: " + service.getAuxiliaryDebts().size() + "\n" +
+                        "Paid-off Debts: " + service.getPaidOffDebts().size() + "\n" +
                         "Stack Order (LIFO): Newest debt is TOS\n" +
                         "Current TOS: " + getTopName(),
                 "Profile Summary",
@@ -1884,14 +2030,11 @@ public class UserDashboard extends JFrame {
 
     // Helper method to get debts in proper LIFO order for visualization
     private ArrayList<Debt> getDebtsForVisualization() {
-        ArrayList<Debt> debts = (ArrayList<Debt>) manager.getStackForVisualization();
-        if (debts.isEmpty()) {
-            return new ArrayList<>();
-        }
+        java.util.List<Debt> debts = manager.getStackView();
 
         // For LIFO visualization, we want newest (TOS) at index 0
         // The DebtManager returns oldest at index 0, newest at last index
-        ArrayList<Debt> result = new ArrayList<>();
+        ArrayList<Debt> result = new ArrayList<>(debts.size());
 
         // Reverse the order for visualization
         for (int i = debts.size() - 1; i >= 0; i--) {
@@ -2064,6 +2207,7 @@ public class UserDashboard extends JFrame {
         }
 
         private void drawAuxiliaryStack(Graphics2D g2, int centerX, int baseY) {
+            java.util.List<Debt> auxiliaryDebts = service.getAuxiliaryDebts();
             if (auxiliaryDebts.isEmpty()) {
                 // Show empty message
                 g2.setColor(Color.LIGHT_GRAY);
@@ -2116,6 +2260,7 @@ public class UserDashboard extends JFrame {
         }
 
         private void drawPaidOffStack(Graphics2D g2, int centerX, int baseY) {
+            java.util.List<Debt> paidOffDebts = service.getPaidOffDebts();
             if (paidOffDebts.isEmpty()) {
                 // Show empty message
                 g2.setColor(Color.LIGHT_GRAY);
@@ -201,27 +201,45 @@ public class UserRegister extends JFrame {
                     return;
                 }
 
-                // Attempt registration
-                boolean success = controller.register(fullName, email, username, password, userType);
-                if (success) {
-                    JOptionPane.showMessageDialog(UserRegister.this,
-                            "Registration successful!\nPlease login with your credentials.",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                    // Clear fields
-                    fullnameField.setText("");
-                    emailField.setText("");
-                    usernameField.setText("");
-                    passwordField.setText("");
-
-                    // Go to login page
-                    dispose();
-                    new Login(controller).setVisible(true);
-                } else {
-                    JOptionPane.showMessageDialog(UserRegister.this,
-                            "Registration failed. Username may already exist.",
-                            "Registration Error", JOptionPane.ERROR_MESSAGE);
-                }
+                // Registration syncs the user directory to disk, so run it off the EDT
+                signupButton.setEnabled(false);
+                new SwingWorker<Boolean, Void>() {
+                    @Override
+                    protected Boolean doInBackground() {
+                        return controller.register(fullName, email, username, password, userType);
+                    }
+
+                    @Override
+                    protected void done() {
+                        signupButton.setEnabled(true);
+                        boolean success;
+                        try {
+                            success = get();
+                        } catch (Exception ex) {
+                            System.err.println("Error registering user: " + ex.getMessage());
+                            success = false;
+                        }
+                        if (success) {
+                            JOptionPane.showMessageDialog(UserRegister.this,
+                                    "Registration successful!\nPlease login with your credentials.",
+                                    "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                            // Clear fields
+                            fullnameField.setText("");
+                            emailField.setText("");
+                            usernameField.setText("");
+                            passwordField.setText("");
+
+                            // Go to login page
+                            dispose();
+                            new Login(controller).setVisible(true);
+                        } else {
+                            JOptionPane.showMessageDialog(UserRegister.this,
+                                    "Registration failed. Username may already exist.",
+                                    "Registration Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    }
+                }.execute();
             }
         });
 
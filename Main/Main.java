@@ -1,11 +1,20 @@
-
 import Gui.Login;
 import Model.AppController;
+import Server.ApiServer;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class Main {
+    // Port for "--server" when none is given
+    private static final int DEFAULT_API_PORT = 8080;
+
     public static void main(String[] args) {
+        // "--server [port]" runs the JSON API on localhost instead of the desktop app
+        if (args.length > 0 && "--server".equals(args[0])) {
+            startServer(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_API_PORT);
+            return;
+        }
+
         // Set look and feel
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -19,4 +28,16 @@ public class Main {
             new Login(controller).setVisible(true);
         });
     }
-}
\ No newline at end of file
+
+    private static void startServer(int port) {
+        try {
+            ApiServer server = new ApiServer(new AppController(), "127.0.0.1", port);
+            // Save every open session on Ctrl+C
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+            server.start();
+        } catch (Exception e) {
+            System.err.println("Error starting API server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
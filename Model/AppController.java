@@ -1,9 +1,5 @@
 package Model;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.ArrayList;
-
 public class AppController {
 
     // ===========================
@@ -22,8 +18,20 @@ public class AppController {
     // userType) - Registers new user with specified type
     // register(String full, String email, String username, String pass) - Registers
     // new user as debtor (default)
+    // registerUser(String full, String email, String username, String pass, String
+    // userType) - Registers a user without logging anyone in
     // logout() - Logs out user, saves debts, resets debt manager
 
+    // ===========================
+    // Session Methods - Many users logged in at once (server use); the desktop
+    // user above is just the one pinned session
+    // ===========================
+    // openSession(String username, String password) - Authenticates and returns
+    // the user's session (null on bad credentials)
+    // getSession(String token) - Lock-free session lookup
+    // closeSession(String token) - Saves the session's debts and ends it
+    // getSessions() - The underlying SessionRegistry (eviction, shutdown)
+
     // ===========================
     // User Management Methods - Methods for accessing and checking current user information
     // ===========================
@@ -37,38 +45,37 @@ public class AppController {
     // Debt Management Methods - Methods for managing and persisting user debt data
     // ===========================
     // getManager() - Returns DebtManager instance for debt operations
+    // getTowerService() - Returns the DebtTowerService over the current manager
     // saveUserDebts() - Saves current user's debts to storage
-    // loadUserDebts(String username) - Loads user's debts from storage (private)
     // saveAllData() - Saves all application data including users and debts
 
-    private Map<String, User> users;
-    private DebtManager debtManager = new DebtManager();
-    private User currentUser;
-    private String currentUsername;
+    private final UserDirectory users;
+    private final SessionRegistry sessions = new SessionRegistry();
+    // The desktop user's session (null when logged out)
+    private Session currentSession;
+    // Empty stand-ins handed out while nobody is logged in
+    private DebtManager loggedOutManager = new DebtManager();
+    private DebtTowerService loggedOutService = new DebtTowerService(loggedOutManager);
 
     public AppController() {
-        // Load existing users from file
-        users = DataManager.loadUsers();
+        // Convert data files from the old serialized format, then open the user
+        // directory (imports users.dat the first time)
+        DataManager.migrateLegacyFiles();
+        users = UserDirectory.getInstance();
 
         // Pre-register a test financial advisor if not exists
-        if (!users.containsKey("advisor1")) {
-            users.put("advisor1", new User("John Financial", "john@hanoi.com", "advisor1", "password123", "ADVISOR"));
-            DataManager.saveUsers(users);
+        if (users.add(new User("John Financial", "john@hanoi.com", "advisor1", "password123", UserType.ADVISOR))) {
             System.out.println("Test financial advisor created.");
         }
 
         // Pre-register another financial advisor
-        if (!users.containsKey("advisor2")) {
-            users.put("advisor2",
-                    new User("Sarah Consultant", "sarah@hanoi.com", "advisor2", "password123", "ADVISOR"));
-            DataManager.saveUsers(users);
+        if (users.add(new User("Sarah Consultant", "sarah@hanoi.com", "advisor2", "password123",
+                UserType.ADVISOR))) {
             System.out.println("Second financial advisor created.");
         }
 
         // Pre-register a test client if not exists
-        if (!users.containsKey("client")) {
-            users.put("client", new User("Test Client", "client@test.com", "client", "password123", "DEBTOR"));
-            DataManager.saveUsers(users);
+        if (users.add(new User("Test Client", "client@test.com", "client", "password123", UserType.DEBTOR))) {
             System.out.println("Test client created.");
         }
 
@@ -76,13 +83,16 @@ public class AppController {
     }
 
     public boolean login(String username, String password) {
-        if (users.containsKey(username) && users.get(username).getPassword().equals(password)) {
-            currentUser = users.get(username);
-            currentUsername = username;
-
-            // Load user's debts from storage
-            loadUserDebts(username);
-            System.out.println("User '" + username + "' logged in successfully as " + currentUser.getUserType());
+        User user = authenticate(username, password);
+        if (user != null) {
+            // Load user's debts from storage (or join the session they already have)
+            Session session = sessions.open(user);
+            if (currentSession != null && currentSession != session) {
+                currentSession.setPinned(false); // Left to idle eviction
+            }
+            currentSession = session;
+            currentSession.setPinned(true);
+            System.out.println("User '" + username + "' logged in successfully as " + user.getUserType());
             return true;
         }
         System.out.println("Login failed for user: " + username);
@@ -90,22 +100,13 @@ public class AppController {
     }
 
     public boolean register(String full, String email, String username, String pass, String userType) {
-        if (users.containsKey(username)) {
-            System.out.println("Registration failed: Username '" + username + "' already exists.");
+        if (!registerUser(full, email, username, pass, userType)) {
             return false;
         }
 
-        users.put(username, new User(full, email, username, pass, userType));
-        currentUser = users.get(username);
-        currentUsername = username;
-
-        // Save users to file
-        DataManager.saveUsers(users);
-
-        // Create new debt manager for new user
-        debtManager = new DebtManager();
-
-        System.out.println("User '" + username + "' registered successfully as " + userType);
+        // A new user has no files yet, so this starts an empty manager and journal
+        currentSession = sessions.open(users.get(username));
+        currentSession.setPinned(true);
         return true;
     }
 
@@ -114,81 +115,104 @@ public class AppController {
         return register(full, email, username, pass, "DEBTOR");
     }
 
+    public boolean registerUser(String full, String email, String username, String pass, String userType) {
+        // Appended to the mapped directory and synced to disk before this returns, so
+        // callers on the EDT should run it in the background (see UserRegister)
+        if (!users.add(new User(full, email, username, pass, userType))) {
+            System.out.println("Registration failed: Username '" + username + "' already exists.");
+            return false;
+        }
+
+        System.out.println("User '" + username + "' registered successfully as " + userType);
+        return true;
+    }
+
     // Logout method
     public void logout() {
-        if (currentUsername != null) {
+        if (currentSession != null) {
             // Save user's debts before logging out
-            saveUserDebts();
-            System.out.println("User '" + currentUsername + "' logged out.");
+            sessions.close(currentSession.getToken());
+            System.out.println("User '" + currentSession.getUsername() + "' logged out.");
         }
-        currentUser = null;
-        currentUsername = null;
-        debtManager = new DebtManager(); // Reset debt manager for next user
+        currentSession = null;
+        loggedOutManager = new DebtManager(); // Reset debt manager for next user
+        loggedOutService = new DebtTowerService(loggedOutManager);
     }
 
-    // Save current user's debts
+    // Save current user's debts. With a journal every action is already on disk
+    // (the manager compacts it itself), so there is nothing to write here; logout
+    // folds the journal into a new snapshot.
     public void saveUserDebts() {
-        if (currentUsername != null) {
-            ArrayList<Debt> currentDebts = debtManager.getStackForVisualization();
-            ArrayList<Debt> paidOffDebts = debtManager.getPaidOffForVisualization();
-
-            DataManager.saveUserDebts(currentUsername, currentDebts, paidOffDebts);
-            System.out.println("Debts saved for user: " + currentUsername);
+        if (currentSession != null && currentSession.getManager().getJournal() == null) {
+            sessions.flush(currentSession);
+            System.out.println("Debts saved for user: " + currentSession.getUsername());
         }
     }
 
-    // Load user's debts
-    private void loadUserDebts(String username) {
-        DataManager.DebtData debtData = DataManager.loadUserDebts(username);
+    public Session openSession(String username, String password) {
+        User user = authenticate(username, password);
+        return user != null ? sessions.open(user) : null;
+    }
 
-        // Clear current debts and load saved ones
-        debtManager = new DebtManager();
+    public Session getSession(String token) {
+        return sessions.get(token);
+    }
 
-        // Load current debts
-        for (Debt debt : debtData.getCurrentDebts()) {
-            debtManager.pushDebt(debt);
-        }
+    public boolean closeSession(String token) {
+        return sessions.close(token);
+    }
 
-        // Load paid off debts
-        for (Debt debt : debtData.getPaidOffDebts()) {
-            debtManager.moveToPaidOff(debt);
-        }
+    public SessionRegistry getSessions() {
+        return sessions;
+    }
 
-        System.out.println("Loaded " + debtData.getCurrentDebts().size() +
-                " current debts and " + debtData.getPaidOffDebts().size() +
-                " paid off debts for user: " + username);
+    public User getUser(String username) {
+        return users.get(username);
+    }
+
+    private User authenticate(String username, String password) {
+        User user = username != null ? users.get(username) : null;
+        return user != null && user.getPassword().equals(password) ? user : null;
     }
 
     public DebtManager getManager() {
-        return debtManager;
+        return currentSession != null ? currentSession.getManager() : loggedOutManager;
+    }
+
+    // One per session, so the auxiliary pillar lives as long as the login
+    public DebtTowerService getTowerService() {
+        return currentSession != null ? currentSession.getService() : loggedOutService;
     }
 
     public User getCurrentUser() {
-        return currentUser;
+        return currentSession != null ? currentSession.getUser() : null;
     }
 
     public String getCurrentUserType() {
+        User currentUser = getCurrentUser();
         return currentUser != null ? currentUser.getUserType() : null;
     }
 
     public String getCurrentUsername() {
-        return currentUsername;
+        return currentSession != null ? currentSession.getUsername() : null;
     }
 
     // Check if current user is advisor
     public boolean isAdvisor() {
-        return currentUser != null && "ADVISOR".equals(currentUser.getUserType());
+        User currentUser = getCurrentUser();
+        return currentUser != null && currentUser.getType() == UserType.ADVISOR;
     }
 
     // Check if current user is debtor
     public boolean isDebtor() {
-        return currentUser != null && "DEBTOR".equals(currentUser.getUserType());
+        User currentUser = getCurrentUser();
+        return currentUser != null && currentUser.getType() == UserType.DEBTOR;
     }
 
     // Method to manually save data (can be called periodically)
     public void saveAllData() {
-        DataManager.saveUsers(users);
-        if (currentUsername != null) {
+        users.force();
+        if (currentSession != null) {
             saveUserDebts();
         }
     }
@@ -6,6 +6,9 @@ import java.util.Date;
 public class ConsultationAppointment implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    private long appointmentId;
+    private long requestId; // The ConsultationRequest this appointment was scheduled from (0 if none)
+
     private String clientUsername;
     private String clientName;
     private String advisorUsername;
@@ -20,6 +23,16 @@ public class ConsultationAppointment implements Serializable {
             String advisorUsername, String advisorName,
             String reason, String platform, String appointmentDate,
             Date scheduledDate, String status) {
+        this(IdGenerator.nextId(), clientUsername, clientName, advisorUsername, advisorName, reason, platform,
+                appointmentDate, scheduledDate, status);
+    }
+
+    // Used when restoring a saved appointment with its original ID
+    ConsultationAppointment(long appointmentId, String clientUsername, String clientName,
+            String advisorUsername, String advisorName,
+            String reason, String platform, String appointmentDate,
+            Date scheduledDate, String status) {
+        this.appointmentId = appointmentId;
         this.clientUsername = clientUsername;
         this.clientName = clientName;
         this.advisorUsername = advisorUsername;
@@ -31,6 +44,26 @@ public class ConsultationAppointment implements Serializable {
         this.status = status;
     }
 
+    // Appointments serialized before IDs existed come back with 0
+    private Object readResolve() {
+        if (appointmentId == 0) {
+            appointmentId = IdGenerator.nextId();
+        }
+        return this;
+    }
+
+    public long getAppointmentId() {
+        return appointmentId;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
     public String getClientUsername() {
         return clientUsername;
     }
@@ -74,7 +107,9 @@ public class ConsultationAppointment implements Serializable {
     @Override
     public String toString() {
         return "ConsultationAppointment{" +
-                "clientUsername='" + clientUsername + '\'' +
+                "appointmentId=" + appointmentId +
+                ", requestId=" + requestId +
+                ", clientUsername='" + clientUsername + '\'' +
                 ", clientName='" + clientName + '\'' +
                 ", advisorUsername='" + advisorUsername + '\'' +
                 ", advisorName='" + advisorName + '\'' +
@@ -15,9 +15,11 @@ public class ConsultationRequest implements Serializable {
     private String appointmentDate;
     private Date requestDate;
     private String status; // PENDING, SCHEDULED, REJECTED, COMPLETED
+    private long requestId;
 
     public ConsultationRequest(String clientUsername, String clientName, String reason,
             String advisorUsername, String advisorName, String platform) {
+        this.requestId = IdGenerator.nextId();
         this.clientUsername = clientUsername;
         this.clientName = clientName;
         this.reason = reason;
@@ -29,7 +31,46 @@ public class ConsultationRequest implements Serializable {
         this.status = "PENDING";
     }
 
+    // Used when restoring a saved request with its original dates and status
+    ConsultationRequest(String clientUsername, String clientName, String reason,
+            String advisorUsername, String advisorName, String platform,
+            String appointmentDate, Date requestDate, String status) {
+        this.clientUsername = clientUsername;
+        this.clientName = clientName;
+        this.reason = reason;
+        this.advisorUsername = advisorUsername;
+        this.advisorName = advisorName;
+        this.platform = platform;
+        this.appointmentDate = appointmentDate;
+        this.requestDate = requestDate;
+        this.status = status;
+    }
+
+    // Detached copy handed out by ConsultationStore
+    ConsultationRequest copy() {
+        ConsultationRequest copy = new ConsultationRequest(clientUsername, clientName, reason, advisorUsername,
+                advisorName, platform, appointmentDate, requestDate, status);
+        copy.requestId = requestId;
+        return copy;
+    }
+
+    // Requests serialized before IDs existed come back with 0
+    private Object readResolve() {
+        if (requestId == 0) {
+            requestId = IdGenerator.nextId();
+        }
+        return this;
+    }
+
     // Getters and Setters
+    public long getRequestId() {
+        return requestId;
+    }
+
+    void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
     public String getClientUsername() {
         return clientUsername;
     }
@@ -66,7 +107,8 @@ public class ConsultationRequest implements Serializable {
         return status;
     }
 
-    public void setStatus(String status) {
+    // Package-private: a request's status changes through ConsultationStore.updateStatus()
+    void setStatus(String status) {
         this.status = status;
     }
 
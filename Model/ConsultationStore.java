@@ -0,0 +1,483 @@
+package Model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+public class ConsultationStore {
+
+    // ===========================
+    // Store Lifecycle Methods - Opening the store file and importing the old
+    // per-list request files
+    // ===========================
+    // getInstance() - Returns the shared store, opening consultations.dat on
+    // first use
+    // load() - Reads every record and rebuilds the in-memory indexes (private)
+    // catchUp() - Picks up records another instance appended, or reloads if it
+    // compacted the file (private, called under the file lock)
+    // readLegacyFiles() / importLegacy(Map) - One-time import of
+    // consultation_requests.dat and client_requests_*.dat (private; read before
+    // the store's own lock is taken)
+    // compact() - Rewrites the file without deleted records
+
+    // ===========================
+    // Record Methods - Adding, updating and deleting requests. Each holds
+    // FileLocks for the store file, so with -Ddepstack.processLocks=true
+    // instances sharing a data directory don't write over each other, and each
+    // write is synced like a journal append (see GroupCommit)
+    // ===========================
+    // add(ConsultationRequest request) - Appends the record (no-op if the same
+    // request is already stored under its ID)
+    // updateStatus(long requestId, String status) - Rewrites the status byte of
+    // the record in place
+    // delete(long requestId) - Marks the record deleted in place
+
+    // ===========================
+    // Query Methods - Primary key and secondary index lookups. Each returns
+    // copies, so only updateStatus() changes a stored request's status
+    // ===========================
+    // get(long requestId) - Looks up a request by its ID
+    // getByAdvisor(String advisorUsername) / getByAdvisor(String, String status)
+    // getByClient(String clientUsername)
+    // getByStatus(String status)
+    // size() - Number of live requests
+
+    static final String CONSULTATIONS_FILE = "consultations.dat";
+
+    // Status byte codes; DELETED marks a tombstoned record
+    private static final String[] STATUSES = { "PENDING", "SCHEDULED", "REJECTED", "COMPLETED" };
+    private static final byte DELETED = -1;
+
+    // Record layout: int length | long requestId | byte status | request body
+    private static final int STATUS_OFFSET = 4 + 8;
+    private static final int HEADER_SIZE = 4 + 2 + 1;
+
+    private static ConsultationStore instance;
+
+    private final File file;
+    private RandomAccessFile raf;
+    private int deletedRecords;
+    // What this instance has read: the file's identity, format version and the
+    // end of the last record it indexed
+    private Object fileKey;
+    private short version = RecordCodec.VERSION;
+    private long loadedEnd = HEADER_SIZE;
+
+    // Primary key index
+    private final Map<Long, Entry> byId = new LinkedHashMap<>();
+    // Secondary indexes (request IDs in insertion order)
+    private final Map<String, LinkedHashSet<Long>> byAdvisor = new HashMap<>();
+    private final Map<String, LinkedHashSet<Long>> byClient = new HashMap<>();
+    private final Map<String, LinkedHashSet<Long>> byStatus = new HashMap<>();
+
+    private static class Entry {
+        ConsultationRequest request;
+        long offset;
+        String status;
+
+        Entry(ConsultationRequest request, long offset, String status) {
+            this.request = request;
+            this.offset = offset;
+            this.status = status;
+        }
+    }
+
+    private ConsultationStore(File file) {
+        this.file = file;
+    }
+
+    public static synchronized ConsultationStore getInstance() {
+        if (instance == null) {
+            ConsultationStore store = new ConsultationStore(new File(CONSULTATIONS_FILE));
+            store.open();
+            instance = store;
+        }
+        return instance;
+    }
+
+    private synchronized void open() {
+        // Read the pre-store files before taking this file's lock, so their locks and
+        // this one are never held together (see FileLocks)
+        Map<String, ConsultationRequest> legacy = isEmptyFile() ? readLegacyFiles() : new LinkedHashMap<>();
+        try {
+            FileLocks.withLock(CONSULTATIONS_FILE, () -> {
+                boolean fresh = isEmptyFile();
+                raf = new RandomAccessFile(file, "rw");
+                fileKey = fileKey();
+                if (fresh) {
+                    writeFileHeader(raf);
+                    GroupCommit.force(raf.getChannel());
+                    importLegacy(legacy);
+                } else {
+                    load();
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error opening consultation store: " + e.getMessage());
+        }
+    }
+
+    private Object fileKey() throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    }
+
+    private static void writeFileHeader(RandomAccessFile target) throws IOException {
+        target.setLength(0);
+        target.seek(0);
+        RecordCodec.writeHeader(target, RecordCodec.KIND_CONSULTATIONS);
+    }
+
+    private void load() throws IOException {
+        raf.seek(0);
+        version = RecordCodec.readHeader(raf, RecordCodec.KIND_CONSULTATIONS);
+        readRecords(HEADER_SIZE);
+    }
+
+    private void readRecords(long from) throws IOException {
+        long length = raf.length();
+        long offset = from;
+
+        while (offset < length) {
+            try {
+                raf.seek(offset);
+                int recordLength = raf.readInt();
+                if (recordLength <= 0 || offset + 4 + recordLength > length) {
+                    break;
+                }
+                byte[] bytes = new byte[recordLength];
+                raf.readFully(bytes);
+
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                long requestId = RecordCodec.readId(in);
+                byte status = in.readByte();
+
+                if (status == DELETED) {
+                    deletedRecords++;
+                } else if (status < 0 || status >= STATUSES.length) {
+                    // Framing is intact, so only this record is lost; compact() drops it
+                    System.err.println("Consultation store record " + requestId + " has unknown status "
+                            + status + ", skipping it");
+                    deletedRecords++;
+                } else {
+                    ConsultationRequest request = RecordCodec.readRequestBody(in, version, STATUSES[status]);
+                    request.setRequestId(requestId);
+                    index(new Entry(request, offset, STATUSES[status]));
+                }
+                offset += 4 + recordLength;
+            } catch (EOFException e) {
+                break;
+            }
+        }
+
+        if (offset < length) {
+            // Partial record left by a crash mid-append
+            System.err.println("Consultation store has a truncated tail, discarding " + (length - offset) + " bytes");
+            raf.setLength(offset);
+        }
+        loadedEnd = offset;
+    }
+
+    // Another instance sharing the file can only have appended records or
+    // replaced the file by compacting it. Status bytes it rewrote in place show up
+    // after the next reload.
+    private void catchUp() throws IOException {
+        if (!FileLocks.PROCESS_LOCKS) {
+            return;
+        }
+        Object key = fileKey();
+        if (key != null && !key.equals(fileKey)) {
+            raf.close();
+            raf = new RandomAccessFile(file, "rw");
+            fileKey = key;
+            byId.clear();
+            byAdvisor.clear();
+            byClient.clear();
+            byStatus.clear();
+            deletedRecords = 0;
+            load();
+        } else if (raf.length() > loadedEnd) {
+            readRecords(loadedEnd);
+        }
+    }
+
+    private boolean isEmptyFile() {
+        return !file.exists() || file.length() == 0;
+    }
+
+    private static Map<String, ConsultationRequest> readLegacyFiles() {
+        // Client files carry the latest status of every request, the advisor file only pending ones
+        Map<String, ConsultationRequest> imported = new LinkedHashMap<>();
+        File[] clientFiles = new File(".").listFiles(
+                (dir, name) -> name.startsWith(DataManager.CLIENT_REQUESTS_FILE) && name.endsWith(".dat"));
+        if (clientFiles != null) {
+            for (File clientFile : clientFiles) {
+                for (ConsultationRequest request : DataManager.readRequestFile(clientFile)) {
+                    imported.put(legacyKey(request), request);
+                }
+            }
+        }
+        for (ConsultationRequest request : DataManager.readRequestFile(
+                new File(DataManager.CONSULTATION_REQUESTS_FILE))) {
+            imported.putIfAbsent(legacyKey(request), request);
+        }
+        return imported;
+    }
+
+    // Caller holds the file's lock
+    private void importLegacy(Map<String, ConsultationRequest> imported) {
+        for (ConsultationRequest request : imported.values()) {
+            add(request);
+        }
+        if (!imported.isEmpty()) {
+            System.out.println("Imported " + imported.size() + " consultation requests into " + CONSULTATIONS_FILE);
+        }
+    }
+
+    private static String legacyKey(ConsultationRequest request) {
+        long time = request.getRequestDate() != null ? request.getRequestDate().getTime() : 0;
+        return request.getClientUsername() + '\u0000' + request.getAdvisorUsername() + '\u0000'
+                + request.getReason() + '\u0000' + time;
+    }
+
+    public synchronized ConsultationRequest add(ConsultationRequest request) {
+        if (request.getRequestId() == 0) {
+            request.setRequestId(IdGenerator.nextId());
+        }
+        String status = request.getStatus();
+
+        try {
+            FileLocks.withLock(CONSULTATIONS_FILE, () -> {
+                catchUp();
+                Entry existing = byId.get(request.getRequestId());
+                if (existing != null) {
+                    if (legacyKey(existing.request).equals(legacyKey(request))) {
+                        return;
+                    }
+                    // Another instance minted the same ID in the same millisecond;
+                    // catchUp() observed it, so a new ID is past every stored one
+                    request.setRequestId(IdGenerator.nextId());
+                }
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+                DataOutputStream out = new DataOutputStream(buffer);
+                out.writeInt(0); // length placeholder
+                out.writeLong(request.getRequestId());
+                out.writeByte(statusCode(status));
+                RecordCodec.writeRequestBody(out, request);
+                byte[] bytes = buffer.toByteArray();
+                int recordLength = bytes.length - 4;
+                bytes[0] = (byte) (recordLength >>> 24);
+                bytes[1] = (byte) (recordLength >>> 16);
+                bytes[2] = (byte) (recordLength >>> 8);
+                bytes[3] = (byte) recordLength;
+
+                long offset = raf.length();
+                raf.seek(offset);
+                raf.write(bytes);
+                GroupCommit.appended(raf.getChannel());
+                loadedEnd = offset + bytes.length;
+                index(new Entry(request.copy(), offset, status));
+            });
+        } catch (IOException e) {
+            System.err.println("Error saving consultation request: " + e.getMessage());
+        }
+        return request;
+    }
+
+    public synchronized boolean updateStatus(long requestId, String status) {
+        byte code = statusCode(status);
+        try {
+            return FileLocks.withLock(CONSULTATIONS_FILE, () -> {
+                catchUp();
+                Entry entry = live(requestId);
+                if (entry == null) {
+                    return false;
+                }
+                raf.seek(entry.offset + STATUS_OFFSET);
+                raf.writeByte(code);
+                GroupCommit.appended(raf.getChannel());
+
+                removeFrom(byStatus, entry.status, requestId);
+                entry.status = status;
+                entry.request.setStatus(status);
+                addTo(byStatus, status, requestId);
+                return true;
+            });
+        } catch (IOException e) {
+            System.err.println("Error updating consultation request " + requestId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized boolean delete(long requestId) {
+        try {
+            return FileLocks.withLock(CONSULTATIONS_FILE, () -> {
+                catchUp();
+                Entry entry = live(requestId);
+                if (entry == null) {
+                    return false;
+                }
+                raf.seek(entry.offset + STATUS_OFFSET);
+                raf.writeByte(DELETED);
+                GroupCommit.appended(raf.getChannel());
+
+                unindex(entry);
+                deletedRecords++;
+                if (deletedRecords > 100 && deletedRecords > byId.size()) {
+                    compact();
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            System.err.println("Error deleting consultation request " + requestId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    public synchronized ConsultationRequest get(long requestId) {
+        Entry entry = byId.get(requestId);
+        return entry != null ? entry.request.copy() : null;
+    }
+
+    public synchronized ArrayList<ConsultationRequest> getByAdvisor(String advisorUsername) {
+        return resolve(byAdvisor.get(advisorUsername), null);
+    }
+
+    public synchronized ArrayList<ConsultationRequest> getByAdvisor(String advisorUsername, String status) {
+        return resolve(byAdvisor.get(advisorUsername), status);
+    }
+
+    public synchronized ArrayList<ConsultationRequest> getByClient(String clientUsername) {
+        return resolve(byClient.get(clientUsername), null);
+    }
+
+    public synchronized ArrayList<ConsultationRequest> getByStatus(String status) {
+        return resolve(byStatus.get(status), null);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // The indexed entry, unless another instance has deleted its record since
+    private Entry live(long requestId) throws IOException {
+        Entry entry = byId.get(requestId);
+        if (entry == null || !FileLocks.PROCESS_LOCKS) {
+            return entry;
+        }
+        raf.seek(entry.offset + STATUS_OFFSET);
+        if (raf.readByte() == DELETED) {
+            unindex(entry);
+            deletedRecords++;
+            return null;
+        }
+        return entry;
+    }
+
+    // Rewrite the file with only live records
+    public synchronized void compact() {
+        try {
+            FileLocks.withLock(CONSULTATIONS_FILE, () -> {
+                catchUp();
+                compactLocked();
+            });
+        } catch (IOException e) {
+            System.err.println("Error compacting consultation store: " + e.getMessage());
+        }
+    }
+
+    private void compactLocked() throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        // New offsets only take effect once the new file is in place
+        long[] offsets = new long[byId.size()];
+        long end;
+        try (RandomAccessFile out = new RandomAccessFile(temp, "rw")) {
+            writeFileHeader(out);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+            int i = 0;
+            for (Entry entry : byId.values()) {
+                buffer.reset();
+                DataOutputStream record = new DataOutputStream(buffer);
+                record.writeLong(entry.request.getRequestId());
+                record.writeByte(statusCode(entry.status));
+                RecordCodec.writeRequestBody(record, entry.request);
+
+                offsets[i++] = out.getFilePointer();
+                out.writeInt(buffer.size());
+                out.write(buffer.toByteArray());
+            }
+            end = out.getFilePointer();
+            GroupCommit.force(out.getChannel());
+        }
+
+        raf.close();
+        try {
+            DataManager.moveAtomically(temp.toPath(), file.toPath());
+        } finally {
+            // The old file if the move failed, so the store stays usable
+            raf = new RandomAccessFile(file, "rw");
+        }
+        GroupCommit.forceDirectory(file.getAbsoluteFile().getParentFile().toPath());
+        int i = 0;
+        for (Entry entry : byId.values()) {
+            entry.offset = offsets[i++];
+        }
+        fileKey = fileKey();
+        version = RecordCodec.VERSION;
+        loadedEnd = end;
+        deletedRecords = 0;
+    }
+
+    private ArrayList<ConsultationRequest> resolve(Set<Long> ids, String status) {
+        ArrayList<ConsultationRequest> result = new ArrayList<>();
+        if (ids == null) {
+            return result;
+        }
+        for (Long id : ids) {
+            Entry entry = byId.get(id);
+            if (status == null || status.equals(entry.status)) {
+                result.add(entry.request.copy());
+            }
+        }
+        return result;
+    }
+
+    private void index(Entry entry) {
+        long id = entry.request.getRequestId();
+        byId.put(id, entry);
+        addTo(byAdvisor, entry.request.getAdvisorUsername(), id);
+        addTo(byClient, entry.request.getClientUsername(), id);
+        addTo(byStatus, entry.status, id);
+    }
+
+    private void unindex(Entry entry) {
+        long id = entry.request.getRequestId();
+        byId.remove(id);
+        removeFrom(byAdvisor, entry.request.getAdvisorUsername(), id);
+        removeFrom(byClient, entry.request.getClientUsername(), id);
+        removeFrom(byStatus, entry.status, id);
+    }
+
+    private static void addTo(Map<String, LinkedHashSet<Long>> index, String key, long id) {
+        index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+    }
+
+    private static void removeFrom(Map<String, LinkedHashSet<Long>> index, String key, long id) {
+        LinkedHashSet<Long> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static byte statusCode(String status) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown consultation status: " + status);
+    }
+}
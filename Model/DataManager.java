@@ -1,262 +1,270 @@
 package Model;
 
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
+// Every file operation here holds FileLocks for the file it touches, so
+// concurrent sessions serialize on the same file but not on each other's files.
+// Saves are written to a temp file and renamed over the old one, so a crash
+// mid-save never leaves a truncated .dat behind.
 public class DataManager {
-    private static final String USERS_FILE = "users.dat";
-    private static final String DEBTS_FILE = "debts_";
-    private static final String CONSULTATION_REQUESTS_FILE = "consultation_requests.dat";
-    private static final String SCHEDULED_APPOINTMENTS_FILE = "scheduled_appointments.dat";
-    private static final String CLIENT_REQUESTS_FILE = "client_requests_";
+    static final String USERS_FILE = "users.dat";
+    static final String DEBTS_FILE = "debts_";
+    static final String CONSULTATION_REQUESTS_FILE = "consultation_requests.dat";
+    static final String SCHEDULED_APPOINTMENTS_FILE = "scheduled_appointments.dat";
+    static final String CLIENT_REQUESTS_FILE = "client_requests_";
 
     // Save users
     public static void saveUsers(Map<String, User> users) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(USERS_FILE))) {
-            oos.writeObject(users);
+        try {
+            FileLocks.withLock(USERS_FILE, () -> writeFile(USERS_FILE, out -> RecordCodec.writeUsers(out, users)));
         } catch (IOException e) {
             System.err.println("Error saving users: " + e.getMessage());
         }
     }
 
-    // Load users
-    @SuppressWarnings("unchecked")
+    // Load users from the pre-directory users.dat (import and legacy migration only;
+    // UserDirectory holds the live users)
     public static Map<String, User> loadUsers() {
         File file = new File(USERS_FILE);
-        if (!file.exists()) {
-            return new HashMap<>();
-        }
-
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (Map<String, User>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            return new HashMap<>();
-        }
-    }
-
-    // Save consultation requests (for advisors)
-    public static void saveConsultationRequests(ArrayList<ConsultationRequest> requests) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(CONSULTATION_REQUESTS_FILE))) {
-            oos.writeObject(requests);
+        try {
+            return FileLocks.withLock(USERS_FILE, () -> {
+                if (!file.exists()) {
+                    return new HashMap<>();
+                }
+                try (DataInputStream in = openInput(file)) {
+                    return RecordCodec.readUsers(in);
+                }
+            });
         } catch (IOException e) {
-            System.err.println("Error saving consultation requests: " + e.getMessage());
+            System.err.println("Error loading users: " + e.getMessage());
+            return new HashMap<>();
         }
     }
 
-    // Load consultation requests (for advisors)
-    @SuppressWarnings("unchecked")
+    // Load consultation requests still waiting on an advisor
     public static ArrayList<ConsultationRequest> loadConsultationRequests() {
-        File file = new File(CONSULTATION_REQUESTS_FILE);
-        if (!file.exists()) {
-            return new ArrayList<>();
-        }
+        return ConsultationStore.getInstance().getByStatus("PENDING");
+    }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (ArrayList<ConsultationRequest>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            return new ArrayList<>();
-        }
+    // Load the pending requests addressed to one advisor
+    public static ArrayList<ConsultationRequest> loadAdvisorRequests(String advisorUsername) {
+        return ConsultationStore.getInstance().getByAdvisor(advisorUsername, "PENDING");
     }
 
     // Save scheduled appointments
     public static void saveScheduledAppointments(ArrayList<ConsultationAppointment> appointments) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SCHEDULED_APPOINTMENTS_FILE))) {
-            oos.writeObject(appointments);
+        try {
+            FileLocks.withLock(SCHEDULED_APPOINTMENTS_FILE, () -> writeFile(SCHEDULED_APPOINTMENTS_FILE,
+                    out -> RecordCodec.writeAppointments(out, appointments)));
         } catch (IOException e) {
             System.err.println("Error saving scheduled appointments: " + e.getMessage());
         }
     }
 
     // Load scheduled appointments
-    @SuppressWarnings("unchecked")
     public static ArrayList<ConsultationAppointment> loadScheduledAppointments() {
-        File file = new File(SCHEDULED_APPOINTMENTS_FILE);
-        if (!file.exists()) {
-            return new ArrayList<>();
-        }
-
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (ArrayList<ConsultationAppointment>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            return FileLocks.withLock(SCHEDULED_APPOINTMENTS_FILE, DataManager::readScheduledAppointments);
+        } catch (IOException e) {
+            System.err.println("Error loading scheduled appointments: " + e.getMessage());
             return new ArrayList<>();
         }
     }
 
-    // Save client consultation requests (for clients to see their own requests)
-    public static void saveClientRequests(String clientUsername, ArrayList<ConsultationRequest> requests) {
-        String filename = CLIENT_REQUESTS_FILE + clientUsername + ".dat";
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
-            oos.writeObject(requests);
+    // Add one appointment (load and save under one lock, so concurrent adds aren't
+    // lost). Returns false without writing if the existing file can't be read, so a
+    // read error never replaces the file with just the new appointment
+    public static boolean addScheduledAppointment(ConsultationAppointment appointment) {
+        try {
+            FileLocks.withLock(SCHEDULED_APPOINTMENTS_FILE, () -> {
+                ArrayList<ConsultationAppointment> appointments = readScheduledAppointments();
+                appointments.add(appointment);
+                writeFile(SCHEDULED_APPOINTMENTS_FILE, out -> RecordCodec.writeAppointments(out, appointments));
+            });
+            return true;
         } catch (IOException e) {
-            System.err.println("Error saving client requests: " + e.getMessage());
+            System.err.println("Error adding scheduled appointment: " + e.getMessage());
+            return false;
         }
     }
 
-    // Load client consultation requests
-    @SuppressWarnings("unchecked")
-    public static ArrayList<ConsultationRequest> loadClientRequests(String clientUsername) {
-        String filename = CLIENT_REQUESTS_FILE + clientUsername + ".dat";
-        File file = new File(filename);
+    // Caller holds the file's lock
+    private static ArrayList<ConsultationAppointment> readScheduledAppointments() throws IOException {
+        File file = new File(SCHEDULED_APPOINTMENTS_FILE);
         if (!file.exists()) {
             return new ArrayList<>();
         }
+        try (DataInputStream in = openInput(file)) {
+            return RecordCodec.readAppointments(in);
+        }
+    }
+
+    // Load client consultation requests (every status, so clients see responses)
+    public static ArrayList<ConsultationRequest> loadClientRequests(String clientUsername) {
+        return ConsultationStore.getInstance().getByClient(clientUsername);
+    }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (ArrayList<ConsultationRequest>) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+    // Write a request list in the pre-store per-list file format (legacy migration only)
+    static void writeRequestFile(String filename, ArrayList<ConsultationRequest> requests) {
+        try {
+            FileLocks.withLock(filename, () -> writeFile(filename, out -> RecordCodec.writeRequests(out, requests)));
+        } catch (IOException e) {
+            System.err.println("Error saving consultation requests: " + e.getMessage());
+        }
+    }
+
+    // Read a pre-store request list file (consultation_requests.dat / client_requests_*.dat)
+    static ArrayList<ConsultationRequest> readRequestFile(File file) {
+        try {
+            return FileLocks.withLock(file.getName(), () -> {
+                if (!file.exists()) {
+                    return new ArrayList<>();
+                }
+                LegacyMigrator.migrateFile(file);
+                try (DataInputStream in = openInput(file)) {
+                    return RecordCodec.readRequests(in);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading consultation requests from " + file.getName() + ": " + e.getMessage());
             return new ArrayList<>();
         }
     }
 
-    // Save user debts
-    public static void saveUserDebts(String username, ArrayList<Debt> debts, ArrayList<Debt> paidOffDebts) {
-        String filename = DEBTS_FILE + username + ".dat";
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) {
-            DebtData debtData = new DebtData(debts, paidOffDebts);
-            oos.writeObject(debtData);
+    // Save user debts (full snapshot; supersedes anything recorded in the journal)
+    // (the data's own epoch is ignored; the snapshot gets the next one)
+    public static void saveUserDebts(String username, DebtData data) {
+        FileLocks.withLock(debtsFile(username), () -> {
+            DebtJournal journal = DebtJournal.getOpen(username);
+            if (journal != null) {
+                journal.checkpoint(data);
+            } else {
+                long epoch = loadUserDebtSnapshot(username).getJournalEpoch() + 1;
+                writeUserDebtSnapshot(username, new DebtData(data.getCurrentDebts(), data.getPaidOffDebts(),
+                        data.getAuxiliaryDebts(), epoch, data.getStrategy()));
+            }
+        });
+    }
+
+    // Name of the user's snapshot file, also the lock key for their journal
+    static String debtsFile(String username) {
+        return DEBTS_FILE + username + ".dat";
+    }
+
+    // Write the snapshot file as-is (epoch already assigned by the caller)
+    static void writeUserDebtSnapshot(String username, DebtData data) {
+        String filename = debtsFile(username);
+        try {
+            FileLocks.withLock(filename, () -> writeFile(filename, out -> RecordCodec.writeDebtFile(out, data)));
         } catch (IOException e) {
             System.err.println("Error saving debts: " + e.getMessage());
         }
     }
 
-    // Load user debts
+    // Load user debts: last snapshot plus any journaled operations recorded after it
     public static DebtData loadUserDebts(String username) {
-        String filename = DEBTS_FILE + username + ".dat";
-        File file = new File(filename);
-        if (!file.exists()) {
-            return new DebtData();
-        }
+        // One lock for both reads, so a checkpoint can't land between them
+        return FileLocks.withLock(debtsFile(username),
+                () -> DebtJournal.replay(username, loadUserDebtSnapshot(username)));
+    }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            return (DebtData) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
+    // Load only the last snapshot, without replaying the journal
+    static DebtData loadUserDebtSnapshot(String username) {
+        String filename = debtsFile(username);
+        File file = new File(filename);
+        try {
+            return FileLocks.withLock(filename, () -> {
+                if (!file.exists()) {
+                    return new DebtData();
+                }
+                try (DataInputStream in = openInput(file)) {
+                    return RecordCodec.readDebtFile(in);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading debts for " + username + ": " + e.getMessage());
             return new DebtData();
         }
     }
 
-    // Add a consultation request
-    public static void addConsultationRequest(ConsultationRequest request) {
-        // Add to advisor's list
-        ArrayList<ConsultationRequest> advisorRequests = loadConsultationRequests();
-        advisorRequests.add(request);
-        saveConsultationRequests(advisorRequests);
-
-        // Add to client's personal list
-        ArrayList<ConsultationRequest> clientRequests = loadClientRequests(request.getClientUsername());
-        clientRequests.add(request);
-        saveClientRequests(request.getClientUsername(), clientRequests);
+    // Convert any .dat files still in java.io serialized form (run once at startup)
+    public static void migrateLegacyFiles() {
+        LegacyMigrator.migrateAll();
     }
 
-    // Get all financial advisors
-    public static ArrayList<User> getFinancialAdvisors() {
-        Map<String, User> users = loadUsers();
-        ArrayList<User> advisors = new ArrayList<>();
-
-        for (User user : users.values()) {
-            if ("ADVISOR".equals(user.getUserType())) {
-                advisors.add(user);
+    // Replace a file in one step: write "<file>.tmp", sync it, rename it over the
+    // target and sync the directory. Caller holds the file's lock.
+    static void writeFile(String filename, RecordWriter writer) throws IOException {
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                writer.write(out);
+                out.flush();
+                GroupCommit.force(file.getChannel());
             }
+            moveAtomically(temp, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
         }
-
-        return advisors;
+        GroupCommit.forceDirectory(target.getParent());
     }
 
-    // In DataManager class, update or replace the deleteConsultationRequest method:
-    public static void deleteConsultationRequest(ConsultationRequest request) {
+    static void moveAtomically(Path source, Path target) throws IOException {
         try {
-            // Remove from advisor's global list
-            ArrayList<ConsultationRequest> advisorRequests = loadConsultationRequests();
-            ConsultationRequest toRemove = null;
-
-            // Find the exact request to remove
-            for (ConsultationRequest req : advisorRequests) {
-                if (req.getClientUsername().equals(request.getClientUsername()) &&
-                        req.getAdvisorUsername().equals(request.getAdvisorUsername()) &&
-                        req.getReason().equals(request.getReason())) {
-
-                    // Use timestamp comparison for better accuracy
-                    long timeDiff = Math.abs(req.getRequestDate().getTime() - request.getRequestDate().getTime());
-                    if (timeDiff < 60000) { // Within 1 minute
-                        toRemove = req;
-                        break;
-                    }
-                }
-            }
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-            if (toRemove != null) {
-                advisorRequests.remove(toRemove);
-                saveConsultationRequests(advisorRequests);
-                System.out.println("Removed consultation request from advisor list: " +
-                        request.getClientName() + " -> " + request.getAdvisorName());
-            }
+    interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
 
-            // Update client's list - don't remove, just update status
-            ArrayList<ConsultationRequest> clientRequests = loadClientRequests(request.getClientUsername());
-            boolean updated = false;
-
-            for (int i = 0; i < clientRequests.size(); i++) {
-                ConsultationRequest cr = clientRequests.get(i);
-                if (cr.getClientUsername().equals(request.getClientUsername()) &&
-                        cr.getAdvisorUsername().equals(request.getAdvisorUsername()) &&
-                        cr.getReason().equals(request.getReason())) {
-
-                    // Update the status to match
-                    cr.setStatus(request.getStatus());
-                    updated = true;
-                    System.out.println("Updated client request status to: " + request.getStatus());
-                    break;
-                }
-            }
+    static DataInputStream openInput(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+    }
 
-            if (!updated) {
-                // If not found, add it with the updated status
-                request.setStatus(request.getStatus());
-                clientRequests.add(request);
-            }
+    // Add a consultation request (visible to the advisor and the client)
+    public static void addConsultationRequest(ConsultationRequest request) {
+        ConsultationStore.getInstance().add(request);
+    }
 
-            saveClientRequests(request.getClientUsername(), clientRequests);
+    // Get all financial advisors (the directory chains them, debtors are never read)
+    public static ArrayList<User> getFinancialAdvisors() {
+        return UserDirectory.getInstance().getAdvisors();
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error in deleteConsultationRequest: " + e.getMessage());
-            e.printStackTrace();
+    // Take a request off the advisor's pending list; the client keeps it with its new
+    // status. Returns false (leaving the stored request as it was) if it couldn't be saved
+    public static boolean deleteConsultationRequest(ConsultationRequest request, String newStatus) {
+        if (!ConsultationStore.getInstance().updateStatus(request.getRequestId(), newStatus)) {
+            System.err.println("Consultation request not saved: " + request.getRequestId());
+            return false;
         }
+        return true;
     }
 
-    // In the DataManager class, add this method:
+    // Update the status of a stored request (seen by both advisor and client)
     public static void updateClientRequestStatus(String clientUsername, ConsultationRequest originalRequest,
             String newStatus) {
-        try {
-            // Load client's personal requests
-            ArrayList<ConsultationRequest> clientRequests = loadClientRequests(clientUsername);
-
-            // Find and update the matching request
-            for (int i = 0; i < clientRequests.size(); i++) {
-                ConsultationRequest cr = clientRequests.get(i);
-
-                // Match by multiple criteria to ensure we find the right request
-                if (cr.getClientUsername().equals(originalRequest.getClientUsername()) &&
-                        cr.getAdvisorUsername().equals(originalRequest.getAdvisorUsername()) &&
-                        cr.getReason().equals(originalRequest.getReason()) &&
-                        Math.abs(cr.getRequestDate().getTime() - originalRequest.getRequestDate().getTime()) < 1000) { // Within
-                                                                                                                       // 1
-                                                                                                                       // second
-
-                    // Update the status
-                    cr.setStatus(newStatus);
-                    System.out.println("Updated request status for client " + clientUsername +
-                            " to " + newStatus + " with advisor " + originalRequest.getAdvisorName());
-                    break;
-                }
-            }
-
-            // Save the updated client requests
-            saveClientRequests(clientUsername, clientRequests);
-
-        } catch (Exception e) {
-            System.err.println("Error updating client request status for " + clientUsername + ": " + e.getMessage());
-            e.printStackTrace();
+        if (ConsultationStore.getInstance().updateStatus(originalRequest.getRequestId(), newStatus)) {
+            System.out.println("Updated request status for client " + clientUsername +
+                    " to " + newStatus + " with advisor " + originalRequest.getAdvisorName());
+        } else {
+            System.err.println("Error updating client request status for " + clientUsername
+                    + ": request " + originalRequest.getRequestId() + " not found");
         }
     }
 
@@ -265,15 +273,41 @@ public class DataManager {
         private static final long serialVersionUID = 1L;
         private ArrayList<Debt> currentDebts;
         private ArrayList<Debt> paidOffDebts;
+        // Null when read from a serialized snapshot that predates the field
+        private ArrayList<Debt> auxiliaryDebts;
+        // Journal epoch this snapshot belongs to (only journals with the same epoch are replayed)
+        private long journalEpoch;
+        // Strategy the active pillar was viewed in; currentDebts stay in push order
+        // whatever it is. Null when read from a serialized snapshot (LIFO)
+        private DebtManager.Strategy strategy;
 
         public DebtData() {
             this.currentDebts = new ArrayList<>();
             this.paidOffDebts = new ArrayList<>();
+            this.auxiliaryDebts = new ArrayList<>();
         }
 
         public DebtData(ArrayList<Debt> currentDebts, ArrayList<Debt> paidOffDebts) {
             this.currentDebts = currentDebts;
             this.paidOffDebts = paidOffDebts;
+            this.auxiliaryDebts = new ArrayList<>();
+        }
+
+        public DebtData(ArrayList<Debt> currentDebts, ArrayList<Debt> paidOffDebts, long journalEpoch) {
+            this(currentDebts, paidOffDebts);
+            this.journalEpoch = journalEpoch;
+        }
+
+        public DebtData(ArrayList<Debt> currentDebts, ArrayList<Debt> paidOffDebts, ArrayList<Debt> auxiliaryDebts,
+                long journalEpoch) {
+            this(currentDebts, paidOffDebts, journalEpoch);
+            this.auxiliaryDebts = auxiliaryDebts;
+        }
+
+        public DebtData(ArrayList<Debt> currentDebts, ArrayList<Debt> paidOffDebts, ArrayList<Debt> auxiliaryDebts,
+                long journalEpoch, DebtManager.Strategy strategy) {
+            this(currentDebts, paidOffDebts, auxiliaryDebts, journalEpoch);
+            this.strategy = strategy;
         }
 
         public ArrayList<Debt> getCurrentDebts() {
@@ -283,5 +317,21 @@ public class DataManager {
         public ArrayList<Debt> getPaidOffDebts() {
             return paidOffDebts;
         }
+
+        // Bottom first, like the other two lists
+        public ArrayList<Debt> getAuxiliaryDebts() {
+            if (auxiliaryDebts == null) {
+                auxiliaryDebts = new ArrayList<>();
+            }
+            return auxiliaryDebts;
+        }
+
+        public long getJournalEpoch() {
+            return journalEpoch;
+        }
+
+        public DebtManager.Strategy getStrategy() {
+            return strategy != null ? strategy : DebtManager.Strategy.LIFO;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,37 +1,123 @@
 package Model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class Debt implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    // Serialized form kept as the original double fields so old .dat files still load
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("debtId", long.class),
+            new ObjectStreamField("name", String.class),
+            new ObjectStreamField("currentBalance", double.class),
+            new ObjectStreamField("originalAmount", double.class),
+            new ObjectStreamField("interestRate", double.class),
+            new ObjectStreamField("minimumPayment", double.class)
+    };
+
+    private long debtId; // Stable identity, survives renames and updates
     private String name;
-    private double currentBalance;
-    private double originalAmount; // Added field
+    // Money is held in whole cents so repeated payments never drift
+    private long currentBalanceCents;
+    private long originalAmountCents; // Added field
     private double interestRate;
-    private double minimumPayment;
+    private long minimumPaymentCents;
 
     public Debt(String name, double totalAmount, double interestRate, double minimumPayment) {
+        this(IdGenerator.nextId(), name, Money.toCents(totalAmount), Money.toCents(totalAmount), interestRate,
+                Money.toCents(minimumPayment));
+    }
+
+    // Used when restoring a saved debt whose balance differs from its original amount
+    Debt(long debtId, String name, long originalAmountCents, long currentBalanceCents, double interestRate,
+            long minimumPaymentCents) {
+        this.debtId = debtId;
+        this.name = name;
+        this.originalAmountCents = originalAmountCents;
+        this.currentBalanceCents = currentBalanceCents;
+        this.interestRate = interestRate;
+        this.minimumPaymentCents = minimumPaymentCents;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("debtId", debtId);
+        fields.put("name", name);
+        fields.put("currentBalance", getCurrentBalance());
+        fields.put("originalAmount", getOriginalAmount());
+        fields.put("interestRate", interestRate);
+        fields.put("minimumPayment", getMinimumPayment());
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        debtId = fields.get("debtId", 0L);
+        name = (String) fields.get("name", null);
+        currentBalanceCents = Money.toCents(fields.get("currentBalance", 0.0));
+        originalAmountCents = Money.toCents(fields.get("originalAmount", 0.0));
+        interestRate = fields.get("interestRate", 0.0);
+        minimumPaymentCents = Money.toCents(fields.get("minimumPayment", 0.0));
+        // Debts serialized before IDs existed come back with 0
+        if (debtId == 0) {
+            debtId = IdGenerator.nextId();
+        }
+    }
+
+    // Copy with new details that keeps this debt's ID (the balance becomes the new
+    // original amount)
+    public Debt withDetails(String name, long balanceCents, double interestRate, long minimumPaymentCents) {
+        return new Debt(debtId, name, balanceCents, balanceCents, interestRate, minimumPaymentCents);
+    }
+
+    // In-place version of withDetails, only DebtManager changes debts it holds
+    void update(String name, long balanceCents, double interestRate, long minimumPaymentCents) {
         this.name = name;
-        this.originalAmount = totalAmount; // Store original amount
-        this.currentBalance = totalAmount;
+        this.originalAmountCents = balanceCents;
+        this.currentBalanceCents = balanceCents;
         this.interestRate = interestRate;
-        this.minimumPayment = minimumPayment;
+        this.minimumPaymentCents = minimumPaymentCents;
     }
 
     public void makePayment(double amount) {
-        this.currentBalance = Math.max(0, this.currentBalance - amount);
+        makePaymentCents(Money.toCents(amount));
+    }
+
+    public void makePaymentCents(long amountCents) {
+        this.currentBalanceCents = Money.subtractFloorZero(this.currentBalanceCents, amountCents);
     }
 
     public boolean isPaidOff() {
-        return this.currentBalance <= 0.01;
+        return this.currentBalanceCents <= 0;
+    }
+
+    public long getDebtId() {
+        return debtId;
     }
 
     public String getName() {
         return name;
     }
 
+    public long getCurrentBalanceCents() {
+        return currentBalanceCents;
+    }
+
+    public long getOriginalAmountCents() {
+        return originalAmountCents;
+    }
+
+    public long getMinimumPaymentCents() {
+        return minimumPaymentCents;
+    }
+
+    // Dollar views of the cent fields, for display
     public double getCurrentBalance() {
-        return currentBalance;
+        return Money.toDollars(currentBalanceCents);
     }
 
     public double getInterestRate() {
@@ -39,19 +125,20 @@ public class Debt implements Serializable {
     }
 
     public double getMinimumPayment() {
-        return minimumPayment;
+        return Money.toDollars(minimumPaymentCents);
     }
 
     public double getOriginalAmount() {
-        return originalAmount;
+        return Money.toDollars(originalAmountCents);
     }
 
     public double getOriginalBalance() {
-        return originalAmount;
+        return getOriginalAmount();
     }
 
     @Override
     public String toString() {
-        return String.format("%s: $%.2f (Original: $%.2f)", name, currentBalance, originalAmount);
+        return String.format("%s: $%s (Original: $%s)", name, Money.format(currentBalanceCents),
+                Money.format(originalAmountCents));
     }
-}
\ No newline at end of file
+}
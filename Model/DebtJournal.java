@@ -0,0 +1,322 @@
+package Model;
+
+import java.io.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DebtJournal {
+
+    // ===========================
+    // Journal Lifecycle Methods - Opening, checkpointing and closing a user's
+    // journal
+    // ===========================
+    // open(String username, DebtManager manager, long snapshotEpoch) - Attaches
+    // a fresh journal to the manager, starting from a new snapshot
+    // getOpen(String username) - Returns the journal currently open for a user,
+    // if any
+    // checkpoint(DebtManager manager) - Writes a full snapshot and truncates the
+    // journal (compaction)
+    // close() - Flushes and closes the journal file
+
+    // ===========================
+    // Append Methods - One small sequential append per debt mutation
+    // ===========================
+    // appendPush, appendPop, appendPayment, appendMoveToAuxiliary,
+    // appendMoveToPaidOff, appendUpdate, appendDelete, appendStrategy,
+    // appendRestore, appendRestoreAll
+
+    // ===========================
+    // Replay Methods - Rebuilding state from snapshot + journal on load
+    // ===========================
+    // replay(String username, DebtData snapshot) - Applies every journaled
+    // operation of the matching epoch on top of the snapshot
+
+    public enum Op {
+        // New ops go at the end: records store the ordinal
+        PUSH, POP, PAYMENT, MOVE_TO_AUX, MOVE_TO_PAID, UPDATE, DELETE, STRATEGY, RESTORE, RESTORE_ALL
+    }
+
+    static final String JOURNAL_SUFFIX = ".journal";
+    // Compact once this many operations have been appended since the last snapshot
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private static final Map<String, DebtJournal> openJournals = new ConcurrentHashMap<>();
+
+    private final String username;
+    private final File file;
+    private long epoch;
+    private DataOutputStream out;
+    private FileOutputStream fileOut;
+    private int recordCount;
+
+    private DebtJournal(String username, long snapshotEpoch) {
+        this.username = username;
+        this.file = journalFile(username);
+        this.epoch = snapshotEpoch;
+    }
+
+    static File journalFile(String username) {
+        return new File(DataManager.DEBTS_FILE + username + JOURNAL_SUFFIX);
+    }
+
+    public static DebtJournal open(String username, DebtManager manager, long snapshotEpoch) {
+        DebtJournal journal = new DebtJournal(username, snapshotEpoch);
+        DebtJournal previous = openJournals.put(username, journal);
+        if (previous != null) {
+            previous.closeStream();
+        }
+        manager.attachJournal(journal);
+        // Fold anything replayed from the old journal into a fresh snapshot first
+        journal.checkpoint(manager);
+        return journal;
+    }
+
+    public static DebtJournal getOpen(String username) {
+        return openJournals.get(username);
+    }
+
+    // Start a new, empty journal file for the current epoch
+    private void reset() {
+        closeStream();
+        try {
+            fileOut = new FileOutputStream(file, false);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            RecordCodec.writeHeader(out, RecordCodec.KIND_JOURNAL);
+            out.writeLong(epoch);
+            out.flush();
+            GroupCommit.force(fileOut.getChannel());
+            recordCount = 0;
+        } catch (IOException e) {
+            System.err.println("Error opening debt journal for " + username + ": " + e.getMessage());
+            out = null;
+            fileOut = null;
+        }
+    }
+
+    public void appendPush(Debt debt) {
+        try {
+            beginRecord(Op.PUSH);
+            RecordCodec.writeDebt(out, debt);
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    public void appendPop() {
+        appendSimple(Op.POP);
+    }
+
+    public void appendPayment(long amountCents) {
+        try {
+            beginRecord(Op.PAYMENT);
+            out.writeLong(amountCents);
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    public void appendMoveToAuxiliary() {
+        appendSimple(Op.MOVE_TO_AUX);
+    }
+
+    public void appendMoveToPaidOff(Debt debt) {
+        try {
+            beginRecord(Op.MOVE_TO_PAID);
+            RecordCodec.writeDebt(out, debt);
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    // The record carries the debt's ID, replay finds it through the manager's index
+    public void appendUpdate(Debt updated) {
+        try {
+            beginRecord(Op.UPDATE);
+            RecordCodec.writeDebt(out, updated);
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    public void appendDelete() {
+        appendSimple(Op.DELETE);
+    }
+
+    public void appendStrategy(DebtManager.Strategy strategy) {
+        try {
+            beginRecord(Op.STRATEGY);
+            out.writeByte(strategy.ordinal());
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    public void appendRestore() {
+        appendSimple(Op.RESTORE);
+    }
+
+    public void appendRestoreAll() {
+        appendSimple(Op.RESTORE_ALL);
+    }
+
+    private void appendSimple(Op op) {
+        try {
+            beginRecord(op);
+            endRecord();
+        } catch (IOException e) {
+            appendFailed(e);
+        }
+    }
+
+    private void beginRecord(Op op) throws IOException {
+        if (out == null) {
+            throw new IOException("journal is not open");
+        }
+        out.writeByte(op.ordinal());
+    }
+
+    // Flushed to the OS on every record; synced to disk per GroupCommit's mode
+    private void endRecord() throws IOException {
+        out.flush();
+        GroupCommit.appended(fileOut.getChannel());
+        recordCount++;
+    }
+
+    private void appendFailed(IOException e) {
+        System.err.println("Error appending to debt journal for " + username + ": " + e.getMessage());
+    }
+
+    public boolean needsCompaction() {
+        return recordCount >= COMPACT_THRESHOLD;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    // Snapshot the manager's current state and truncate the journal
+    public void checkpoint(DebtManager manager) {
+        checkpoint(manager.snapshot());
+    }
+
+    // The new snapshot gets the next epoch before the journal is reset, so a crash in
+    // between leaves an old-epoch journal that replay will simply ignore
+    void checkpoint(DataManager.DebtData data) {
+        FileLocks.withLock(DataManager.debtsFile(username), () -> {
+            epoch++;
+            DataManager.writeUserDebtSnapshot(username,
+                    new DataManager.DebtData(data.getCurrentDebts(), data.getPaidOffDebts(),
+                            data.getAuxiliaryDebts(), epoch, data.getStrategy()));
+            reset();
+        });
+    }
+
+    public void close() {
+        closeStream();
+        openJournals.remove(username, this);
+    }
+
+    private void closeStream() {
+        if (out != null) {
+            try {
+                out.flush();
+                GroupCommit.force(fileOut.getChannel());
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Error closing debt journal for " + username + ": " + e.getMessage());
+            }
+            out = null;
+            fileOut = null;
+        }
+    }
+
+    public static DataManager.DebtData replay(String username, DataManager.DebtData snapshot) {
+        File file = journalFile(username);
+        if (!file.exists()) {
+            return snapshot;
+        }
+
+        DebtManager manager = new DebtManager();
+        manager.loadPillars(snapshot);
+
+        int applied = 0;
+        try (DataInputStream in = DataManager.openInput(file)) {
+            short version = RecordCodec.readHeader(in, RecordCodec.KIND_JOURNAL);
+            if (version != RecordCodec.VERSION) {
+                // Journals are only written in the current format (open() starts each
+                // one fresh), so an older header means the file is not ours to replay
+                System.err.println("Ignoring debt journal for " + username + " written in format " + version);
+                return snapshot;
+            }
+            long journalEpoch = in.readLong();
+            if (journalEpoch != snapshot.getJournalEpoch()) {
+                // Written before the current snapshot; its operations are already included
+                return snapshot;
+            }
+
+            while (true) {
+                int code = in.read();
+                if (code < 0) {
+                    break;
+                }
+                applyRecord(manager, Op.values()[code], in, version);
+                applied++;
+            }
+        } catch (EOFException e) {
+            // A torn final record from a crash mid-append; everything before it is kept
+            System.err.println("Debt journal for " + username + " ends with a partial record, ignoring it.");
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Error replaying debt journal for " + username + ": " + e.getMessage());
+        }
+
+        if (applied > 0) {
+            System.out.println("Replayed " + applied + " journaled debt operations for user: " + username);
+        }
+        DataManager.DebtData replayed = manager.snapshot();
+        return new DataManager.DebtData(replayed.getCurrentDebts(), replayed.getPaidOffDebts(),
+                replayed.getAuxiliaryDebts(), snapshot.getJournalEpoch(), replayed.getStrategy());
+    }
+
+    private static void applyRecord(DebtManager manager, Op op, DataInputStream in, short version)
+            throws IOException {
+        switch (op) {
+            case PUSH:
+                manager.pushDebt(RecordCodec.readDebt(in, version));
+                break;
+            case POP:
+                manager.popDebt();
+                break;
+            case PAYMENT:
+                manager.makePayment(in.readLong());
+                break;
+            case MOVE_TO_AUX:
+                manager.moveTOSToAuxiliary();
+                break;
+            case MOVE_TO_PAID:
+                manager.moveToPaidOff(RecordCodec.readDebt(in, version));
+                break;
+            case UPDATE:
+                Debt updated = RecordCodec.readDebt(in, version);
+                manager.updateDebt(updated.getDebtId(), updated.getName(), updated.getCurrentBalanceCents(),
+                        updated.getInterestRate(), updated.getMinimumPaymentCents());
+                break;
+            case DELETE:
+                manager.deleteTOS();
+                break;
+            case STRATEGY:
+                manager.setStrategy(DebtManager.Strategy.values()[in.readByte()]);
+                break;
+            case RESTORE:
+                manager.restoreFromAuxiliary();
+                break;
+            case RESTORE_ALL:
+                manager.restoreAllFromAuxiliary();
+                break;
+        }
+    }
+}
@@ -47,28 +47,66 @@ public class DebtManager implements Serializable {
     // ===========================
     // pushDebt(Debt debt) - Adds a new debt to the top of the stack, applies
     // strategy if not LIFO
+    // pushAll(Collection<Debt> debts) - Pushes a batch of debts in order
+    // loadPillars(DebtData data) - Fills all three pillars and the strategy from
+    // a snapshot (before a journal is attached)
+    // snapshot() - Copies the pillars (active in push order) and the strategy
     // popDebt() - Removes and returns the top debt from the stack
     // moveToPaidOff(Debt d) - Transfers a debt from active stack to paid-off
     // history list
     // peekTOS() - Returns the top debt without removing it from stack
+    // makePayment(long amountCents) - Pays down the TOS debt
+    // moveTOSToAuxiliary() - Parks the TOS debt on the auxiliary pillar
+    // restoreFromAuxiliary() - Moves the newest auxiliary debt back onto the
+    // active stack
+    // restoreAllFromAuxiliary() - Moves the whole auxiliary pillar back, oldest
+    // first, so the newest parked debt ends up on top
+    // deleteTOS() - Removes the TOS debt permanently
+    // updateDebt(long debtId, String name, long balanceCents, double
+    // interestRate, long minimumPaymentCents) - Changes a held debt's details in
+    // place
+    // findDebt(long debtId) - O(1) lookup of a debt on any pillar by ID
+    // searchByName(String query, int limit) - Ranked prefix, substring and fuzzy
+    // name matches from the trigram index
+    // findByNameContaining(String fragment) - Every name match, in pillar order
+    // findInRanges(long minCents, long maxCents, double minRate, double maxRate,
+    // Set<Pillar> pillars) - Balance AND rate AND pillar filter over the sorted
+    // range indexes
+    // query() - Composable query with a lazy cursor (see DebtQuery)
+    // locate(Debt debt) - O(1) pillar that holds a debt (null if none)
+    // positionFromTop(Debt debt) - Distance from the top of its pillar, in the
+    // current strategy's order for active debts (0 = TOS). O(1) from the slot
+    // for the stacks; O(log n) for the active pillar under Avalanche or Snowball
+
+    // ===========================
+    // Journal Methods - Every mutation above is appended to the user's journal
+    // ===========================
+    // attachJournal(DebtJournal journal) - Starts recording mutations
+    // getJournal() - Returns the attached journal (null when not recording)
 
     // ===========================
     // Data Retrieval Methods - Methods for getting debt data for display
     // ===========================
     // getStackForVisualization() - Returns all active debts as ArrayList for
     // visualization
+    // getStackView() - Read-only view of the active stack without copying
     // getPaidOffForVisualization() - Returns all paid-off debts as ArrayList for
     // display
+    // getAuxiliaryForVisualization() - Returns the auxiliary pillar as an
+    // ArrayList (bottom first)
+    // getAuxiliaryView() / getPaidOffView() - Read-only live views (bottom first)
     // getMaxDebtAmount() - Returns the highest debt amount for scaling
     // visualizations
+    // getTotalBalanceCents() - Returns the total active balance in cents
 
     // ===========================
     // Strategy Management - Methods for controlling debt repayment strategies
     // ===========================
-    // setStrategy(Strategy strategy) - Changes the current debt repayment strategy
+    // setStrategy(Strategy strategy) - Changes the current debt repayment
+    // strategy (O(1), every order is kept up to date)
     // getStrategy() - Returns the currently active debt repayment strategy
-    // applyStrategy() - Private method that sorts debts based on active strategy
-    // (except LIFO)
+    // strategyOrder() - Private method returning the tree that holds the active
+    // strategy's order (null for LIFO)
     // reorderForLIFO() - Ensures stack maintains LIFO order for LIFO strategy
 
     // ===========================
@@ -78,59 +116,530 @@ public class DebtManager implements Serializable {
     // for debugging
 
     private static final long serialVersionUID = 1L;
-    private Stack<Debt> debtStack = new Stack<>();
-    // New list to track history for the "Paid Off" pillar
-    private ArrayList<Debt> paidOffDebts = new ArrayList<>();
+
+    // Strategy orders, bottom to top (the last element is the TOS). Ties fall back
+    // to the debt ID, so equal debts keep a stable order with the newest on top.
+    static final Comparator<Debt> AVALANCHE_ORDER = Comparator
+            .comparingDouble(Debt::getInterestRate) // Avalanche: highest interest on top
+            .thenComparingLong(Debt::getDebtId);
+    static final Comparator<Debt> SNOWBALL_ORDER = Comparator
+            .comparingLong(Debt::getCurrentBalanceCents).reversed() // Snowball: smallest balance on top
+            .thenComparingLong(Debt::getDebtId);
+
+    // Unsynchronized, like the rest of DebtManager: a manager and its stack are
+    // confined to one thread (the EDT, or the request thread of its session)
+    // Push order, used as-is for LIFO
+    private DebtStack debtStack = new DebtStack();
+    // The same active debts kept in each strategy's order, so pushes, payments and
+    // strategy switches are O(log n) instead of a full re-sort, and so is a debt's
+    // position in that order
+    private DebtOrder avalancheOrder = new DebtOrder(AVALANCHE_ORDER);
+    private DebtOrder snowballOrder = new DebtOrder(SNOWBALL_ORDER);
+    // The other two Hanoi pillars, newest on top: debts parked out of the way,
+    // and the paid-off history
+    private DebtStack auxiliaryStack = new DebtStack();
+    private DebtStack paidOffDebts = new DebtStack();
+    // ID index over all three pillars
+    private HashMap<Long, Debt> debtsById = new HashMap<>();
+    // Where each held debt sits, by identity: its pillar and its index from the
+    // bottom of that pillar's stack. Updated on every move, so locating a debt
+    // never scans a pillar
+    private IdentityHashMap<Debt, Slot> slots = new IdentityHashMap<>();
+    // Trigram index over the names of every held debt, for search-as-you-type
+    private DebtNameIndex nameIndex = new DebtNameIndex();
+    // Every held debt sorted by balance (cents) and by rate (basis points), for
+    // range filters
+    private RangeIndex balanceIndex = new RangeIndex();
+    private RangeIndex rateIndex = new RangeIndex();
+    // Bumped on every change to the pillars or the indexes, so query cursors can
+    // fail fast
+    private transient int modCount;
 
     public enum Strategy {
         AVALANCHE, SNOWBALL, LIFO // ADDED LIFO strategy
     }
 
+    public enum Pillar {
+        ACTIVE, AUXILIARY, PAID_OFF
+    }
+
+    private static final class Slot implements Serializable {
+        private static final long serialVersionUID = 1L;
+        Pillar pillar;
+        int index;
+    }
+
     private Strategy currentStrategy = Strategy.LIFO; // CHANGED: Default to LIFO
 
+    // Append-only record of mutations (not part of the manager's own state)
+    private transient DebtJournal journal;
+
     public void pushDebt(Debt debt) {
-        debtStack.push(debt);
-        // CHANGED: Only apply strategy if NOT LIFO
-        if (currentStrategy != Strategy.LIFO) {
-            applyStrategy();
+        addActive(debt);
+        if (journal != null) {
+            journal.appendPush(debt);
+            compactJournalIfNeeded();
+        }
+    }
+
+    // Bulk push (e.g. loading a saved stack): one capacity check for the whole batch
+    public void pushAll(Collection<Debt> debts) {
+        int from = debtStack.size();
+        debtStack.pushAll(debts);
+        indexFrom(Pillar.ACTIVE, from);
+        for (Debt debt : debts) {
+            avalancheOrder.add(debt);
+            snowballOrder.add(debt);
+            hold(debt);
+        }
+        if (journal != null) {
+            for (Debt debt : debts) {
+                journal.appendPush(debt);
+            }
+            compactJournalIfNeeded();
+        }
+    }
+
+    // Restore a saved tower; nothing is journaled (the snapshot already has it)
+    public void loadPillars(DataManager.DebtData data) {
+        currentStrategy = data.getStrategy();
+        debtStack.pushAll(data.getCurrentDebts());
+        auxiliaryStack.pushAll(data.getAuxiliaryDebts());
+        paidOffDebts.pushAll(data.getPaidOffDebts());
+        indexFrom(Pillar.ACTIVE, 0);
+        indexFrom(Pillar.AUXILIARY, 0);
+        indexFrom(Pillar.PAID_OFF, 0);
+        for (Debt debt : data.getCurrentDebts()) {
+            avalancheOrder.add(debt);
+            snowballOrder.add(debt);
+            hold(debt);
+        }
+        for (Debt debt : data.getAuxiliaryDebts()) {
+            hold(debt);
+        }
+        for (Debt debt : data.getPaidOffDebts()) {
+            hold(debt);
         }
     }
 
     public Debt popDebt() {
-        if (debtStack.isEmpty())
-            return null;
-        Debt d = debtStack.pop();
+        Debt d = removeTOS();
+        if (d != null && journal != null) {
+            journal.appendPop();
+            compactJournalIfNeeded();
+        }
         return d;
     }
 
     // Method to move a debt to the paid off list
     public void moveToPaidOff(Debt d) {
-        paidOffDebts.add(d);
+        paidOffDebts.push(d);
+        indexFrom(Pillar.PAID_OFF, paidOffDebts.size() - 1);
+        hold(d);
+        if (journal != null) {
+            journal.appendMoveToPaidOff(d);
+            compactJournalIfNeeded();
+        }
     }
 
     public Debt peekTOS() {
-        return debtStack.isEmpty() ? null : debtStack.peek();
+        DebtOrder order = strategyOrder();
+        if (order == null) {
+            return debtStack.peek();
+        }
+        return order.isEmpty() ? null : order.last();
+    }
+
+    // Pay down the TOS debt, returns the debt that was paid (null if stack empty)
+    public Debt makePayment(long amountCents) {
+        Debt top = peekTOS();
+        if (top == null)
+            return null;
+        // The balance is part of the snowball key, so re-seat the debt around the change
+        snowballOrder.remove(top);
+        unindexValues(top);
+        top.makePaymentCents(amountCents);
+        indexValues(top);
+        snowballOrder.add(top);
+        if (journal != null) {
+            journal.appendPayment(amountCents);
+            compactJournalIfNeeded();
+        }
+        return top;
+    }
+
+    // Park the TOS debt on the auxiliary pillar
+    public Debt moveTOSToAuxiliary() {
+        Debt d = removeTOS();
+        if (d == null)
+            return null;
+        auxiliaryStack.push(d);
+        indexFrom(Pillar.AUXILIARY, auxiliaryStack.size() - 1);
+        hold(d);
+        if (journal != null) {
+            journal.appendMoveToAuxiliary();
+            compactJournalIfNeeded();
+        }
+        return d;
+    }
+
+    public Debt restoreFromAuxiliary() {
+        Debt d = auxiliaryStack.pop();
+        if (d == null)
+            return null;
+        addActive(d);
+        if (journal != null) {
+            journal.appendRestore();
+            compactJournalIfNeeded();
+        }
+        return d;
+    }
+
+    // Returns how many debts were restored
+    public int restoreAllFromAuxiliary() {
+        int count = auxiliaryStack.size();
+        if (count == 0)
+            return 0;
+        ArrayList<Debt> parked = new ArrayList<>(count);
+        auxiliaryStack.drainTo(parked);
+        for (Debt debt : parked) {
+            addActive(debt);
+        }
+        if (journal != null) {
+            journal.appendRestoreAll();
+            compactJournalIfNeeded();
+        }
+        return count;
+    }
+
+    // Permanently remove the TOS debt
+    public Debt deleteTOS() {
+        Debt d = removeTOS();
+        if (d != null && journal != null) {
+            journal.appendDelete();
+            compactJournalIfNeeded();
+        }
+        return d;
+    }
+
+    private void addActive(Debt debt) {
+        debtStack.push(debt);
+        indexFrom(Pillar.ACTIVE, debtStack.size() - 1);
+        avalancheOrder.add(debt);
+        snowballOrder.add(debt);
+        hold(debt);
+    }
+
+    // Removes the TOS of the current strategy from every order
+    private Debt removeTOS() {
+        DebtOrder order = strategyOrder();
+        Debt top;
+        if (order == null) {
+            top = debtStack.pop();
+        } else {
+            top = order.isEmpty() ? null : order.last();
+            if (top != null) {
+                // Strategy TOS can sit anywhere in push order; the debts above it
+                // shift down one
+                int index = slots.get(top).index;
+                debtStack.removeAt(index);
+                indexFrom(Pillar.ACTIVE, index);
+            }
+        }
+        if (top == null)
+            return null;
+        avalancheOrder.remove(top);
+        snowballOrder.remove(top);
+        release(top);
+        slots.remove(top);
+        return top;
+    }
+
+    // Every debt on any pillar is in the ID, name and range indexes
+    private void hold(Debt debt) {
+        modCount++;
+        debtsById.put(debt.getDebtId(), debt);
+        nameIndex.add(debt);
+        indexValues(debt);
+    }
+
+    private void release(Debt debt) {
+        modCount++;
+        debtsById.remove(debt.getDebtId());
+        nameIndex.remove(debt);
+        unindexValues(debt);
+    }
+
+    // The range indexes are keyed on the debt's current values, so these bracket
+    // every change to a held debt's balance or rate
+    private void indexValues(Debt debt) {
+        balanceIndex.add(debt.getCurrentBalanceCents(), debt);
+        rateIndex.add(rateBasisPoints(debt.getInterestRate()), debt);
+    }
+
+    private void unindexValues(Debt debt) {
+        modCount++;
+        balanceIndex.remove(debt.getCurrentBalanceCents(), debt);
+        rateIndex.remove(rateBasisPoints(debt.getInterestRate()), debt);
+    }
+
+    // 12.34% -> 1234
+    static long rateBasisPoints(double ratePercent) {
+        return Math.round(ratePercent * 100);
+    }
+
+    // Records the slots of a pillar's debts from index 'from' up to its top
+    private void indexFrom(Pillar pillar, int from) {
+        modCount++;
+        DebtStack stack = stackOf(pillar);
+        for (int i = from; i < stack.size(); i++) {
+            Debt debt = stack.get(i);
+            Slot slot = slots.get(debt);
+            if (slot == null) {
+                slot = new Slot();
+                slots.put(debt, slot);
+            }
+            slot.pillar = pillar;
+            slot.index = i;
+        }
+    }
+
+    private DebtStack stackOf(Pillar pillar) {
+        switch (pillar) {
+            case AUXILIARY:
+                return auxiliaryStack;
+            case PAID_OFF:
+                return paidOffDebts;
+            default:
+                return debtStack;
+        }
+    }
+
+    // The tree holding the current strategy's order, null for LIFO (push order)
+    private DebtOrder strategyOrder() {
+        switch (currentStrategy) {
+            case AVALANCHE:
+                return avalancheOrder;
+            case SNOWBALL:
+                return snowballOrder;
+            default:
+                return null;
+        }
+    }
+
+    public Debt findDebt(long debtId) {
+        return debtsById.get(debtId);
+    }
+
+    // Search-as-you-type over every pillar: names starting with the query first,
+    // then names containing it, then close misspellings
+    public List<Debt> searchByName(String query, int limit) {
+        return nameIndex.search(query, limit);
+    }
+
+    // Every debt whose name contains the fragment (ignoring case), in pillar
+    // order: active TOS down, then auxiliary, then paid off
+    public List<Debt> findByNameContaining(String fragment) {
+        if (fragment == null || fragment.trim().isEmpty())
+            return new ArrayList<>();
+        return query().nameContains(fragment).list();
+    }
+
+    // Debts on the given pillars whose balance is within [minCents, maxCents] and
+    // rate within [minRate, maxRate] percent, in pillar order. The query starts
+    // from the narrower index range rather than scanning every pillar
+    public List<Debt> findInRanges(long minCents, long maxCents, double minRate, double maxRate,
+            Set<Pillar> pillars) {
+        if (pillars.isEmpty())
+            return new ArrayList<>();
+        DebtQuery query = query().balanceBetween(minCents, maxCents).rateBetween(minRate, maxRate);
+        Pillar[] selected = pillars.toArray(new Pillar[0]);
+        query.on(selected[0], Arrays.copyOfRange(selected, 1, selected.length));
+        return query.list();
+    }
+
+    // New query over all three pillars (see DebtQuery)
+    public DebtQuery query() {
+        return new DebtQuery(this);
+    }
+
+    // Hooks for DebtQuery
+    RangeIndex balanceIndex() {
+        return balanceIndex;
+    }
+
+    RangeIndex rateIndex() {
+        return rateIndex;
+    }
+
+    ArrayList<Debt> nameMatches(String fragment) {
+        return nameIndex.substring(fragment);
+    }
+
+    int modCount() {
+        return modCount;
+    }
+
+    int pillarSize(Pillar pillar) {
+        return stackOf(pillar).size();
+    }
+
+    // Lazily walks a pillar from its top down, starting 'skip' debts below the top
+    Iterator<Debt> topDown(Pillar pillar, int skip) {
+        DebtOrder order = strategyOrder();
+        if (pillar == Pillar.ACTIVE && order != null) {
+            return order.topDown(skip);
+        }
+        DebtStack stack = stackOf(pillar);
+        return new Iterator<Debt>() {
+            private int index = stack.size() - 1 - skip;
+
+            @Override
+            public boolean hasNext() {
+                return index >= 0;
+            }
+
+            @Override
+            public Debt next() {
+                if (index < 0)
+                    throw new NoSuchElementException();
+                return stack.get(index--);
+            }
+        };
+    }
+
+    public Pillar locate(Debt debt) {
+        Slot slot = slots.get(debt);
+        return slot != null ? slot.pillar : null;
+    }
+
+    // -1 if the debt is not held by this manager
+    public int positionFromTop(Debt debt) {
+        Slot slot = slots.get(debt);
+        if (slot == null)
+            return -1;
+        DebtOrder order = strategyOrder();
+        if (slot.pillar != Pillar.ACTIVE || order == null) {
+            return stackOf(slot.pillar).size() - 1 - slot.index;
+        }
+        // The strategy tree counts its subtrees, so this is O(log n)
+        return order.positionFromTop(debt);
+    }
+
+    // Orders two debts on the same pillar top first without numbering the pillar:
+    // by slot index on the stacks, by the strategy's own order on the active pillar
+    Comparator<Debt> topFirst() {
+        Comparator<Debt> byIndex = Comparator.comparingInt((Debt d) -> slots.get(d).index).reversed();
+        DebtOrder order = strategyOrder();
+        if (order == null)
+            return byIndex;
+        Comparator<Debt> strategy = order.comparator();
+        return (a, b) -> slots.get(a).pillar == Pillar.ACTIVE ? strategy.compare(b, a) : byIndex.compare(a, b);
+    }
+
+    // Change a debt's details without moving it (on any pillar); returns false if
+    // the debt is not held by this manager
+    public boolean updateDebt(long debtId, String name, long balanceCents, double interestRate,
+            long minimumPaymentCents) {
+        Debt debt = debtsById.get(debtId);
+        if (debt == null)
+            return false;
+        // Re-seat active debts in the strategy orders around the key change
+        boolean active = avalancheOrder.remove(debt);
+        snowballOrder.remove(debt);
+        unindexValues(debt);
+        debt.update(name, balanceCents, interestRate, minimumPaymentCents);
+        indexValues(debt);
+        nameIndex.add(debt); // Re-indexed if the name changed
+        if (active) {
+            avalancheOrder.add(debt);
+            snowballOrder.add(debt);
+        }
+        if (journal != null) {
+            journal.appendUpdate(debt);
+            compactJournalIfNeeded();
+        }
+        return true;
+    }
+
+    void attachJournal(DebtJournal journal) {
+        this.journal = journal;
+    }
+
+    public DebtJournal getJournal() {
+        return journal;
+    }
+
+    private void compactJournalIfNeeded() {
+        if (journal.needsCompaction()) {
+            journal.checkpoint(this);
+        }
     }
 
 
     public ArrayList<Debt> getStackForVisualization() {
         // IMPORTANT: Return the stack as-is for LIFO visualization
         // For LIFO, the last element in the ArrayList is the TOS (most recently added)
-        return new ArrayList<>(debtStack);
+        DebtOrder order = strategyOrder();
+        return order == null ? debtStack.toList() : order.toList();
+    }
+
+    // Read-only view of the active stack in the current order (bottom first). Under
+    // LIFO it is a live view with no copy; only valid on the manager's own thread
+    public List<Debt> getStackView() {
+        DebtOrder order = strategyOrder();
+        return order == null ? debtStack.asList() : Collections.unmodifiableList(order.toList());
+    }
+
+    // Active debts in push order (bottom first) whatever the strategy
+    List<Debt> getPushOrderView() {
+        return debtStack.asList();
+    }
+
+    // Copy of every pillar for a snapshot (epoch 0, the journal assigns it). The
+    // active pillar goes in push order with the strategy alongside, since push
+    // order is what LIFO pops by and the strategy orders are rebuilt from it
+    DataManager.DebtData snapshot() {
+        return new DataManager.DebtData(debtStack.toList(), paidOffDebts.toList(), auxiliaryStack.toList(), 0,
+                currentStrategy);
     }
 
     public ArrayList<Debt> getPaidOffForVisualization() {
-        return new ArrayList<>(paidOffDebts);
+        return paidOffDebts.toList();
+    }
+
+    public ArrayList<Debt> getAuxiliaryForVisualization() {
+        return auxiliaryStack.toList();
+    }
+
+    // Live views, bottom first; only valid on the manager's own thread
+    public List<Debt> getAuxiliaryView() {
+        return auxiliaryStack.asList();
+    }
+
+    public List<Debt> getPaidOffView() {
+        return paidOffDebts.asList();
     }
 
     public void setStrategy(Strategy strategy) {
+        // Every order is maintained all the time, so switching is O(1)
         this.currentStrategy = strategy;
-        applyStrategy();
+        modCount++;
+        if (journal != null) {
+            journal.appendStrategy(strategy);
+            compactJournalIfNeeded();
+        }
     }
 
     public void deptIsEmpty() { //Is the debt stack empty
        //delete all depts
+       for (Debt debt : debtStack) {
+           release(debt);
+           slots.remove(debt);
+       }
        debtStack.clear();
+       avalancheOrder.clear();
+       snowballOrder.clear();
     }
 
     public void searchDebt(String name) { //Search for a debt by name
@@ -143,37 +652,27 @@ public class DebtManager implements Serializable {
         System.out.println("Debt not found: " + name);
     }
 
-    private void applyStrategy() {
-        // Only apply sorting if NOT LIFO strategy
-        if (currentStrategy == Strategy.LIFO) {
-            // For LIFO, do NOT sort - keep stack in insertion order
-            // The Stack class already maintains LIFO order
-            return;
+    public double getMaxDebtAmount() {
+        long maxCents = Money.CENTS_PER_DOLLAR; // $1.00 when every pillar is empty
+        for (Debt debt : debtStack) {
+            maxCents = Math.max(maxCents, debt.getCurrentBalanceCents());
         }
-
-        List<Debt> list = new ArrayList<>(debtStack);
-        Comparator<Debt> comparator;
-        if (currentStrategy == Strategy.SNOWBALL) {
-            // Snowball: smallest balance first (lowest to highest)
-            comparator = Comparator.comparingDouble(Debt::getCurrentBalance);
-        } else { // AVALANCHE
-            // Avalanche: highest interest first
-            comparator = Comparator.comparingDouble(Debt::getInterestRate).reversed();
+        for (Debt debt : auxiliaryStack) {
+            maxCents = Math.max(maxCents, debt.getCurrentBalanceCents());
         }
-        Collections.sort(list, comparator);
-        debtStack.clear();
-
-        // IMPORTANT: When adding back to stack, push in reverse order
-        // so the first element in the sorted list becomes TOS
-        for (int i = list.size() - 1; i >= 0; i--) {
-            debtStack.push(list.get(i));
+        for (Debt debt : paidOffDebts) {
+            maxCents = Math.max(maxCents, debt.getCurrentBalanceCents());
         }
+        return Money.toDollars(maxCents);
     }
 
-    public double getMaxDebtAmount() {
-        double maxStack = debtStack.stream().mapToDouble(Debt::getCurrentBalance).max().orElse(1.0);
-        double maxPaid = paidOffDebts.stream().mapToDouble(Debt::getCurrentBalance).max().orElse(1.0);
-        return Math.max(maxStack, maxPaid);
+    // Sum of the active stack's balances
+    public long getTotalBalanceCents() {
+        long total = 0;
+        for (Debt debt : debtStack) {
+            total += debt.getCurrentBalanceCents();
+        }
+        return total;
     }
 
     public Strategy getStrategy() {
@@ -185,7 +684,7 @@ public class DebtManager implements Serializable {
         // If strategy is LIFO, ensure the stack reflects insertion order
         // with newest (last pushed) at the top
         if (currentStrategy == Strategy.LIFO) {
-            // The Stack class already maintains LIFO order
+            // DebtStack already maintains LIFO order
             // No need to reorder
         }
     }
@@ -198,7 +697,7 @@ public class DebtManager implements Serializable {
             sb.append("  Empty\n");
         } else {
             // Show from bottom (oldest) to top (newest)
-            List<Debt> list = new ArrayList<>(debtStack);
+            List<Debt> list = getStackView();
             for (int i = 0; i < list.size(); i++) {
                 Debt d = list.get(i);
                 String position;
@@ -0,0 +1,278 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Trigram index over debt names, kept in step with DebtManager so a search is
+// answered from the grams instead of scanning every name. Names are lowercased
+// and wrapped in start/end markers, so prefixes and one- or two-letter names
+// still produce grams. Candidates come from the query's grams and are then
+// checked against the name, so prefix and substring results are exact.
+//
+// Not synchronized; it belongs to its manager's thread like the manager itself.
+final class DebtNameIndex {
+
+    // ===========================
+    // Index Methods - Called by DebtManager whenever it takes on, renames or
+    // drops a debt
+    // ===========================
+    // add(Debt debt) - Indexes a debt under its current name (re-indexes a
+    // renamed one)
+    // remove(Debt debt) - Drops a debt from the index
+    // size()
+
+    // ===========================
+    // Query Methods
+    // ===========================
+    // prefix(String query, int limit) - Names starting with the query
+    // substring(String query) - Every name containing the query (unordered)
+    // fuzzy(String query, int limit) - Names sharing the most grams with the
+    // query (typos, swapped letters)
+    // search(String query, int limit) - Prefix matches, then other substring
+    // matches, then fuzzy ones
+
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+    private static final int GRAM = 3;
+    // Share of the query's grams a fuzzy match must contain. Measured against the
+    // query only, so a typo in the first word still finds long names
+    static final double FUZZY_THRESHOLD = 0.5;
+
+    // Shorter names first (a closer match for the same query), then alphabetical
+    private static final Comparator<Entry> CLOSEST = Comparator
+            .comparingInt((Entry e) -> e.key.length())
+            .thenComparing(e -> e.key)
+            .thenComparingLong(e -> e.debt.getDebtId());
+
+    // Gram -> debts whose name contains it
+    private final HashMap<String, Set<Debt>> postings = new HashMap<>();
+    // What each debt was indexed under, so a renamed debt can be unindexed
+    private final IdentityHashMap<Debt, Entry> entries = new IdentityHashMap<>();
+
+    private static final class Entry {
+        final Debt debt;
+        final String key;
+
+        Entry(Debt debt, String key) {
+            this.debt = debt;
+            this.key = key;
+        }
+    }
+
+    void add(Debt debt) {
+        String key = normalize(debt.getName());
+        Entry old = entries.get(debt);
+        if (old != null) {
+            if (old.key.equals(key)) {
+                return; // Moved between pillars, same name
+            }
+            remove(debt);
+        }
+        for (String gram : grams(START + key + END)) {
+            postings.computeIfAbsent(gram, g -> Collections.newSetFromMap(new IdentityHashMap<>())).add(debt);
+        }
+        entries.put(debt, new Entry(debt, key));
+    }
+
+    void remove(Debt debt) {
+        Entry entry = entries.remove(debt);
+        if (entry == null) {
+            return;
+        }
+        for (String gram : grams(START + entry.key + END)) {
+            Set<Debt> debts = postings.get(gram);
+            if (debts != null) {
+                debts.remove(debt);
+                if (debts.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    ArrayList<Debt> prefix(String query, int limit) {
+        String key = normalize(query);
+        ArrayList<Entry> matches = new ArrayList<>();
+        if (!key.isEmpty()) {
+            for (Debt debt : candidates(START + key)) {
+                Entry entry = entries.get(debt);
+                if (entry.key.startsWith(key)) {
+                    matches.add(entry);
+                }
+            }
+        }
+        return closest(matches, limit);
+    }
+
+    ArrayList<Debt> substring(String query) {
+        String key = normalize(query);
+        ArrayList<Debt> matches = new ArrayList<>();
+        if (key.isEmpty()) {
+            return matches;
+        }
+        for (Debt debt : candidates(key)) {
+            if (entries.get(debt).key.contains(key)) {
+                matches.add(debt);
+            }
+        }
+        return matches;
+    }
+
+    ArrayList<Debt> fuzzy(String query, int limit) {
+        String key = normalize(query);
+        ArrayList<Debt> result = new ArrayList<>();
+        if (key.isEmpty() || limit <= 0) {
+            return result;
+        }
+        Set<String> queryGrams = grams(START + key + END);
+        IdentityHashMap<Debt, int[]> shared = new IdentityHashMap<>();
+        for (String gram : queryGrams) {
+            Set<Debt> debts = postings.get(gram);
+            if (debts != null) {
+                for (Debt debt : debts) {
+                    shared.computeIfAbsent(debt, d -> new int[1])[0]++;
+                }
+            }
+        }
+
+        // Best score first; ties go to the closer name
+        Comparator<Scored> best = Comparator.comparingDouble((Scored s) -> -s.score)
+                .thenComparing(s -> s.entry, CLOSEST);
+        PriorityQueue<Scored> top = new PriorityQueue<>(best.reversed());
+        for (Map.Entry<Debt, int[]> e : shared.entrySet()) {
+            Entry entry = entries.get(e.getKey());
+            double score = (double) e.getValue()[0] / queryGrams.size();
+            if (score >= FUZZY_THRESHOLD) {
+                top.add(new Scored(entry, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        ArrayList<Scored> sorted = new ArrayList<>(top);
+        sorted.sort(best);
+        for (Scored s : sorted) {
+            result.add(s.entry.debt);
+        }
+        return result;
+    }
+
+    ArrayList<Debt> search(String query, int limit) {
+        LinkedHashSet<Debt> result = new LinkedHashSet<>(prefix(query, limit));
+        if (result.size() < limit) {
+            String key = normalize(query);
+            ArrayList<Entry> contained = new ArrayList<>();
+            for (Debt debt : substring(key)) {
+                if (!result.contains(debt)) {
+                    contained.add(entries.get(debt));
+                }
+            }
+            addUpTo(result, closest(contained, limit - result.size()), limit);
+        }
+        if (result.size() < limit) {
+            // Exact matches score high here too, so ask for enough to skip them
+            addUpTo(result, fuzzy(query, limit), limit);
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static final class Scored {
+        final Entry entry;
+        final double score;
+
+        Scored(Entry entry, double score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static void addUpTo(Set<Debt> result, Collection<Debt> more, int limit) {
+        for (Debt debt : more) {
+            if (result.size() >= limit) {
+                return;
+            }
+            result.add(debt);
+        }
+    }
+
+    // The 'limit' closest entries, in order, without sorting every match
+    private static ArrayList<Debt> closest(ArrayList<Entry> matches, int limit) {
+        ArrayList<Debt> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+        PriorityQueue<Entry> top = new PriorityQueue<>(CLOSEST.reversed());
+        for (Entry entry : matches) {
+            top.add(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        ArrayList<Entry> sorted = new ArrayList<>(top);
+        sorted.sort(CLOSEST);
+        for (Entry entry : sorted) {
+            result.add(entry.debt);
+        }
+        return result;
+    }
+
+    // Debts that can contain the fragment: every one of its grams' postings when it
+    // is long enough to have grams, otherwise every posting whose gram contains it
+    private Collection<Debt> candidates(String fragment) {
+        if (fragment.length() < GRAM) {
+            Set<Debt> union = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<String, Set<Debt>> e : postings.entrySet()) {
+                if (e.getKey().contains(fragment)) {
+                    union.addAll(e.getValue());
+                }
+            }
+            return union;
+        }
+
+        // Intersect starting from the rarest gram
+        ArrayList<Set<Debt>> lists = new ArrayList<>();
+        for (String gram : grams(fragment)) {
+            Set<Debt> debts = postings.get(gram);
+            if (debts == null) {
+                return Collections.emptyList();
+            }
+            lists.add(debts);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        ArrayList<Debt> result = new ArrayList<>();
+        for (Debt debt : lists.get(0)) {
+            boolean inAll = true;
+            for (int i = 1; i < lists.size() && inAll; i++) {
+                inAll = lists.get(i).contains(debt);
+            }
+            if (inAll) {
+                result.add(debt);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String text) {
+        LinkedHashSet<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+}
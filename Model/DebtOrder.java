@@ -0,0 +1,278 @@
+package Model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// The active debts kept sorted by one strategy's comparator, bottom to top (the
+// greatest debt is the TOS). An AVL tree where every node also counts its
+// subtree, so besides O(log n) add/remove it answers "how far from the top is
+// this debt" and starts a top-down walk at any depth in O(log n), which a
+// TreeSet can't.
+//
+// Not synchronized; it belongs to its manager's thread like the manager itself.
+final class DebtOrder {
+
+    // ===========================
+    // Set Methods
+    // ===========================
+    // add(Debt debt) / remove(Debt debt) - false if nothing changed
+    // last() - The TOS (null when empty)
+    // isEmpty() / size() / clear() / comparator()
+
+    // ===========================
+    // Rank Methods - O(log n) positions
+    // ===========================
+    // positionFromTop(Debt debt) - Debts above it (0 = TOS, -1 if absent)
+    // topDown(int skip) - Iterator from the top down, starting 'skip' debts below
+    // the top
+    // toList() - Every debt, bottom first
+
+    private static final class Node {
+        final Debt debt;
+        Node left;
+        Node right;
+        int height = 1;
+        int count = 1;
+
+        Node(Debt debt) {
+            this.debt = debt;
+        }
+    }
+
+    private final Comparator<Debt> comparator;
+    private Node root;
+    // Bumped on every structural change so iterators can fail fast
+    private int modCount;
+    // Set by insert/delete when the tree actually changed
+    private boolean changed;
+
+    DebtOrder(Comparator<Debt> comparator) {
+        this.comparator = comparator;
+    }
+
+    Comparator<Debt> comparator() {
+        return comparator;
+    }
+
+    boolean add(Debt debt) {
+        changed = false;
+        root = insert(root, debt);
+        if (changed) {
+            modCount++;
+        }
+        return changed;
+    }
+
+    boolean remove(Debt debt) {
+        changed = false;
+        root = delete(root, debt);
+        if (changed) {
+            modCount++;
+        }
+        return changed;
+    }
+
+    Debt last() {
+        Node node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.debt;
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    int size() {
+        return count(root);
+    }
+
+    void clear() {
+        root = null;
+        modCount++;
+    }
+
+    int positionFromTop(Debt debt) {
+        int above = 0;
+        Node node = root;
+        while (node != null) {
+            int c = comparator.compare(debt, node.debt);
+            if (c < 0) {
+                above += 1 + count(node.right);
+                node = node.left;
+            } else if (c > 0) {
+                node = node.right;
+            } else {
+                return above + count(node.right);
+            }
+        }
+        return -1;
+    }
+
+    // Keeps the path to the next debt on a stack, so each step is amortized O(1)
+    Iterator<Debt> topDown(int skip) {
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        // Descend to the debt 'skip' places below the top, remembering every node
+        // on the way that comes after it in top-down order
+        Node node = root;
+        int remaining = skip;
+        while (node != null) {
+            int above = count(node.right);
+            if (remaining < above) {
+                path.push(node);
+                node = node.right;
+            } else if (remaining == above) {
+                path.push(node);
+                break;
+            } else {
+                remaining -= above + 1;
+                node = node.left;
+            }
+        }
+        return new Iterator<Debt>() {
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Debt next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (path.isEmpty())
+                    throw new NoSuchElementException();
+                Node current = path.pop();
+                for (Node below = current.left; below != null; below = below.right) {
+                    path.push(below);
+                }
+                return current.debt;
+            }
+        };
+    }
+
+    ArrayList<Debt> toList() {
+        ArrayList<Debt> list = new ArrayList<>(size());
+        addInOrder(root, list);
+        return list;
+    }
+
+    private static void addInOrder(Node node, ArrayList<Debt> list) {
+        if (node != null) {
+            addInOrder(node.left, list);
+            list.add(node.debt);
+            addInOrder(node.right, list);
+        }
+    }
+
+    private Node insert(Node node, Debt debt) {
+        if (node == null) {
+            changed = true;
+            return new Node(debt);
+        }
+        int c = comparator.compare(debt, node.debt);
+        if (c < 0) {
+            node.left = insert(node.left, debt);
+        } else if (c > 0) {
+            node.right = insert(node.right, debt);
+        } else {
+            return node;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, Debt debt) {
+        if (node == null) {
+            return null;
+        }
+        int c = comparator.compare(debt, node.debt);
+        if (c < 0) {
+            node.left = delete(node.left, debt);
+        } else if (c > 0) {
+            node.right = delete(node.right, debt);
+        } else {
+            changed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the next debt up, taken out of the right subtree
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.count = 1 + count(node.left) + count(node.right);
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static int count(Node node) {
+        return node != null ? node.count : 0;
+    }
+}
@@ -0,0 +1,493 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Composable query over every pillar of a DebtManager. Set any mix of
+// predicates, an order and a page (offset/limit), then read the results
+// through a lazy Cursor:
+//
+//   manager.query().nameContains("loan").balanceBetween(0, 500000)
+//           .on(DebtManager.Pillar.ACTIVE).orderBy(Strategy.SNOWBALL).limit(20).cursor()
+//
+// Planning: the requested order has a natural walk (the pillars from their top
+// down, or the balance / rate index). When another predicate has an index that
+// narrows the search to fewer debts than that walk (the name index, or a
+// balance / rate range), those few candidates are filtered and sorted up front.
+// Otherwise the natural walk runs lazily, checking the remaining predicates per
+// debt and stopping at the limit. An offset over a walk with nothing left to
+// check jumps straight to the page.
+//
+// A query, like its manager, belongs to one thread. A cursor is only valid until
+// the manager next changes; after that it throws ConcurrentModificationException.
+public final class DebtQuery {
+
+    // ===========================
+    // Predicate Methods - All predicates must hold (AND)
+    // ===========================
+    // nameContains(String fragment) - Name contains the fragment, ignoring case
+    // (blank = any name)
+    // balanceBetween(long minCents, long maxCents) - Current balance, inclusive
+    // rateBetween(double minRate, double maxRate) - Interest rate in percent,
+    // inclusive
+    // on(Pillar first, Pillar... rest) - Only these pillars (default: all three)
+
+    // ===========================
+    // Order and Paging Methods
+    // ===========================
+    // orderBy(Strategy order) - LIFO (default): pillar order, active TOS down in
+    // the manager's current strategy, then auxiliary, then paid off. SNOWBALL:
+    // smallest balance first. AVALANCHE: highest rate first. Ties go by debt ID.
+    // offset(int offset) / limit(int limit) - One page of the ordered results
+
+    // ===========================
+    // Result Methods
+    // ===========================
+    // cursor() - Lazy iterator over the page
+    // list() - The page as a list
+    // count() - Number of results in the page, without building it
+
+    private final DebtManager manager;
+
+    private String nameKey = "";
+    private long minCents = Long.MIN_VALUE;
+    private long maxCents = Long.MAX_VALUE;
+    private long minBp = Long.MIN_VALUE;
+    private long maxBp = Long.MAX_VALUE;
+    private EnumSet<DebtManager.Pillar> pillars = EnumSet.allOf(DebtManager.Pillar.class);
+    private DebtManager.Strategy order = DebtManager.Strategy.LIFO;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    DebtQuery(DebtManager manager) {
+        this.manager = manager;
+    }
+
+    public DebtQuery nameContains(String fragment) {
+        nameKey = fragment == null ? "" : fragment.trim().toLowerCase();
+        return this;
+    }
+
+    public DebtQuery balanceBetween(long minCents, long maxCents) {
+        this.minCents = minCents;
+        this.maxCents = maxCents;
+        return this;
+    }
+
+    public DebtQuery rateBetween(double minRate, double maxRate) {
+        this.minBp = DebtManager.rateBasisPoints(minRate);
+        this.maxBp = DebtManager.rateBasisPoints(maxRate);
+        return this;
+    }
+
+    public DebtQuery on(DebtManager.Pillar first, DebtManager.Pillar... rest) {
+        pillars = EnumSet.of(first, rest);
+        return this;
+    }
+
+    public DebtQuery orderBy(DebtManager.Strategy order) {
+        this.order = order;
+        return this;
+    }
+
+    public DebtQuery offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    public DebtQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public Cursor cursor() {
+        return plan().open(offset, limit);
+    }
+
+    public ArrayList<Debt> list() {
+        ArrayList<Debt> page = new ArrayList<>();
+        for (Cursor cursor = cursor(); cursor.hasNext();) {
+            page.add(cursor.next());
+        }
+        return page;
+    }
+
+    public int count() {
+        Plan plan = plan();
+        if (!plan.needsCheck()) {
+            // Every debt the walk yields is a result
+            return (int) Math.max(0, Math.min((long) plan.source.remaining() - offset, limit));
+        }
+        int count = 0;
+        for (Cursor cursor = plan.open(offset, limit); cursor.hasNext(); cursor.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    // ===========================
+    // Planning
+    // ===========================
+
+    private Plan plan() {
+        RangeIndex balances = manager.balanceIndex();
+        RangeIndex rates = manager.rateIndex();
+        int balanceFrom = balances.lowerBound(minCents);
+        int balanceTo = Math.max(balanceFrom, balances.upperBound(maxCents));
+        int rateFrom = rates.lowerBound(minBp);
+        int rateTo = Math.max(rateFrom, rates.upperBound(maxBp));
+
+        // The walk that yields the requested order by itself
+        Plan natural;
+        switch (order) {
+            case SNOWBALL:
+                natural = new Plan(new RangeSource(balances, balanceFrom, balanceTo, false));
+                natural.checkRate = rateBounded();
+                natural.checkPillar = !allPillars();
+                break;
+            case AVALANCHE:
+                natural = new Plan(new RangeSource(rates, rateFrom, rateTo, true));
+                natural.checkBalance = balanceBounded();
+                natural.checkPillar = !allPillars();
+                break;
+            default:
+                natural = new Plan(new PillarSource());
+                natural.checkBalance = balanceBounded();
+                natural.checkRate = rateBounded();
+                break;
+        }
+        natural.checkName = !nameKey.isEmpty();
+
+        // The smallest candidate set another predicate's index can give
+        int walkLength = natural.source.remaining();
+        int candidates = walkLength;
+        List<Debt> narrowest = null;
+        boolean balanceNarrower = order != DebtManager.Strategy.SNOWBALL && balanceBounded()
+                && balanceTo - balanceFrom < candidates;
+        if (balanceNarrower) {
+            candidates = balanceTo - balanceFrom;
+        }
+        boolean rateNarrower = order != DebtManager.Strategy.AVALANCHE && rateBounded()
+                && rateTo - rateFrom < candidates;
+        if (rateNarrower) {
+            candidates = rateTo - rateFrom;
+        }
+        if (!nameKey.isEmpty()) {
+            ArrayList<Debt> named = manager.nameMatches(nameKey);
+            if (named.size() < candidates) {
+                candidates = named.size();
+                narrowest = named;
+            }
+        }
+        if (narrowest == null && rateNarrower) {
+            narrowest = new RangeSource(rates, rateFrom, rateTo, false).toList();
+        } else if (narrowest == null && balanceNarrower) {
+            narrowest = new RangeSource(balances, balanceFrom, balanceTo, false).toList();
+        }
+        if (narrowest == null) {
+            return natural;
+        }
+
+        // The lazy walk reads about (offset + limit) / selectivity debts before the
+        // page is full; the candidate path reads and sorts every candidate. Take
+        // whichever reads less, so paging through a broad filter stays per-page
+        long wanted = Math.min((long) offset + limit, candidates);
+        double walkCost = Math.min(walkLength, wanted * (double) walkLength / Math.max(candidates, 1));
+        double sortCost = candidates * (1 + Math.log(candidates + 1) / Math.log(2));
+        if (walkCost <= sortCost) {
+            return natural;
+        }
+
+        // Few enough to filter and sort up front; then every page is a sublist
+        ArrayList<Debt> results = new ArrayList<>(narrowest.size());
+        Plan check = new Plan(null);
+        check.checkName = !nameKey.isEmpty();
+        check.checkBalance = balanceBounded();
+        check.checkRate = rateBounded();
+        check.checkPillar = !allPillars();
+        for (Debt debt : narrowest) {
+            if (check.accepts(debt)) {
+                results.add(debt);
+            }
+        }
+        results.sort(comparator());
+        return new Plan(new ListSource(results));
+    }
+
+    private Comparator<Debt> comparator() {
+        switch (order) {
+            case SNOWBALL:
+                return Comparator.comparingLong(Debt::getCurrentBalanceCents).thenComparingLong(Debt::getDebtId);
+            case AVALANCHE:
+                return Comparator.comparingLong((Debt d) -> -DebtManager.rateBasisPoints(d.getInterestRate()))
+                        .thenComparing(Comparator.comparingLong(Debt::getDebtId).reversed());
+            default:
+                return Comparator.comparingInt((Debt d) -> manager.locate(d).ordinal())
+                        .thenComparing(manager.topFirst());
+        }
+    }
+
+    private boolean balanceBounded() {
+        return minCents != Long.MIN_VALUE || maxCents != Long.MAX_VALUE;
+    }
+
+    private boolean rateBounded() {
+        return minBp != Long.MIN_VALUE || maxBp != Long.MAX_VALUE;
+    }
+
+    private boolean allPillars() {
+        return pillars.size() == DebtManager.Pillar.values().length;
+    }
+
+    // A source plus the predicates it does not already guarantee
+    private final class Plan {
+        final Source source;
+        boolean checkName;
+        boolean checkBalance;
+        boolean checkRate;
+        boolean checkPillar;
+
+        Plan(Source source) {
+            this.source = source;
+        }
+
+        boolean needsCheck() {
+            return checkName || checkBalance || checkRate || checkPillar;
+        }
+
+        boolean accepts(Debt debt) {
+            if (checkBalance) {
+                long cents = debt.getCurrentBalanceCents();
+                if (cents < minCents || cents > maxCents)
+                    return false;
+            }
+            if (checkRate) {
+                long bp = DebtManager.rateBasisPoints(debt.getInterestRate());
+                if (bp < minBp || bp > maxBp)
+                    return false;
+            }
+            if (checkPillar && !pillars.contains(manager.locate(debt)))
+                return false;
+            return !checkName || debt.getName().trim().toLowerCase().contains(nameKey);
+        }
+
+        Cursor open(int offset, int limit) {
+            Cursor cursor = new Cursor(this, limit);
+            if (!needsCheck()) {
+                source.skip(offset);
+            } else {
+                for (int i = 0; i < offset && cursor.advance(); i++) {
+                    cursor.next = null;
+                }
+            }
+            return cursor;
+        }
+    }
+
+    public final class Cursor implements Iterator<Debt> {
+        private final Plan plan;
+        private final int expectedModCount;
+        private int remaining;
+        private Debt next;
+
+        private Cursor(Plan plan, int limit) {
+            this.plan = plan;
+            this.expectedModCount = manager.modCount();
+            this.remaining = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0 && advance();
+        }
+
+        @Override
+        public Debt next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Debt debt = next;
+            next = null;
+            remaining--;
+            return debt;
+        }
+
+        // Pulls from the source until the next result is buffered
+        private boolean advance() {
+            if (manager.modCount() != expectedModCount)
+                throw new ConcurrentModificationException();
+            while (next == null && plan.source.hasNext()) {
+                Debt debt = plan.source.next();
+                if (plan.accepts(debt)) {
+                    next = debt;
+                }
+            }
+            return next != null;
+        }
+    }
+
+    // ===========================
+    // Sources - Ordered walks that know how much is left and can jump ahead
+    // ===========================
+
+    private interface Source extends Iterator<Debt> {
+        int remaining();
+
+        void skip(int n);
+    }
+
+    // Positions [from, to) of a range index, ascending or descending
+    private static final class RangeSource implements Source {
+        private final RangeIndex index;
+        private final int from;
+        private final int to;
+        private final boolean descending;
+        private int done;
+
+        RangeSource(RangeIndex index, int from, int to, boolean descending) {
+            this.index = index;
+            this.from = from;
+            this.to = to;
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return done < to - from;
+        }
+
+        @Override
+        public Debt next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int position = descending ? to - 1 - done : from + done;
+            done++;
+            return index.debtAt(position);
+        }
+
+        @Override
+        public int remaining() {
+            return to - from - done;
+        }
+
+        @Override
+        public void skip(int n) {
+            done += Math.min(n, remaining());
+        }
+
+        ArrayList<Debt> toList() {
+            ArrayList<Debt> debts = new ArrayList<>(remaining());
+            while (hasNext()) {
+                debts.add(next());
+            }
+            return debts;
+        }
+    }
+
+    private static final class ListSource implements Source {
+        private final List<Debt> debts;
+        private int done;
+
+        ListSource(List<Debt> debts) {
+            this.debts = debts;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return done < debts.size();
+        }
+
+        @Override
+        public Debt next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return debts.get(done++);
+        }
+
+        @Override
+        public int remaining() {
+            return debts.size() - done;
+        }
+
+        @Override
+        public void skip(int n) {
+            done += Math.min(n, remaining());
+        }
+    }
+
+    // The selected pillars one after another, each from its top down
+    private final class PillarSource implements Source {
+        private final DebtManager.Pillar[] parts = pillars.toArray(new DebtManager.Pillar[0]);
+        private int part = -1;
+        private int doneInPart;
+        private Iterator<Debt> current;
+        private int remaining;
+
+        PillarSource() {
+            for (DebtManager.Pillar pillar : parts) {
+                remaining += manager.pillarSize(pillar);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (current == null || !current.hasNext()) {
+                if (part + 1 >= parts.length)
+                    return false;
+                part++;
+                doneInPart = 0;
+                current = manager.topDown(parts[part], 0);
+            }
+            return true;
+        }
+
+        @Override
+        public Debt next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            doneInPart++;
+            remaining--;
+            return current.next();
+        }
+
+        @Override
+        public int remaining() {
+            return remaining;
+        }
+
+        // Whole pillars are stepped over by size; inside one, the walk restarts
+        // further down (O(1) on a stack, a short iteration on a strategy tree)
+        @Override
+        public void skip(int n) {
+            n = Math.min(n, remaining);
+            remaining -= n;
+            while (n > 0) {
+                if (current == null || !current.hasNext()) {
+                    part++;
+                    doneInPart = 0;
+                    current = null;
+                }
+                int left = manager.pillarSize(parts[part]) - doneInPart;
+                if (n >= left) {
+                    n -= left;
+                    doneInPart += left;
+                    current = manager.topDown(parts[part], doneInPart);
+                } else {
+                    doneInPart += n;
+                    current = manager.topDown(parts[part], doneInPart);
+                    n = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package Model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Growable array-backed LIFO of debts. Index 0 is the bottom, size() - 1 the TOS.
+//
+// Concurrency policy: a DebtStack is NOT synchronized. It is confined to the
+// thread that owns its DebtManager (the Swing EDT for the dashboards, or the
+// single request thread working on a session). Code that shares a stack across
+// threads must hold one lock around every call, including iteration.
+public class DebtStack implements Iterable<Debt> {
+
+    // ===========================
+    // Stack Operations - Single-element LIFO access
+    // ===========================
+    // push(Debt debt) - Adds a debt on top
+    // pop() - Removes and returns the TOS (null when empty)
+    // peek() - Returns the TOS without removing it (null when empty)
+    // isEmpty() / size() / clear()
+
+    // ===========================
+    // Bulk Operations - One capacity check and one array copy per call
+    // ===========================
+    // pushAll(Collection<Debt> debts) - Pushes debts in iteration order (last
+    // one ends up on top)
+    // popN(int n) - Removes the top n debts, returned TOS first
+    // drainTo(Collection<Debt> target) - Moves every debt out, bottom first
+
+    // ===========================
+    // Indexed Access - Random access used by updates and reordering
+    // ===========================
+    // get(int index) / set(int index, Debt debt) / indexOf(Debt debt)
+    // remove(Debt debt) - Removes a debt from anywhere in the stack
+    // removeAt(int index) - Same, when the caller already knows the position
+    // sort(Comparator<Debt> bottomToTop) - Reorders in place, the greatest
+    // element ends up on top
+    // asList() - Read-only live view (no copy), for painting
+    // toList() - Snapshot copy as an ArrayList
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Debt[] elements = new Debt[INITIAL_CAPACITY];
+    private int size;
+    // Bumped on every structural change so iterators can fail fast
+    private int modCount;
+
+    public void push(Debt debt) {
+        ensureCapacity(size + 1);
+        elements[size++] = debt;
+        modCount++;
+    }
+
+    public Debt pop() {
+        if (size == 0)
+            return null;
+        Debt top = elements[--size];
+        elements[size] = null;
+        modCount++;
+        return top;
+    }
+
+    public Debt peek() {
+        return size == 0 ? null : elements[size - 1];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    public void pushAll(Collection<Debt> debts) {
+        ensureCapacity(size + debts.size());
+        for (Debt debt : debts) {
+            elements[size++] = debt;
+        }
+        modCount++;
+    }
+
+    public ArrayList<Debt> popN(int n) {
+        int count = Math.min(Math.max(n, 0), size);
+        ArrayList<Debt> popped = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            popped.add(elements[size - 1 - i]);
+        }
+        Arrays.fill(elements, size - count, size, null);
+        size -= count;
+        modCount++;
+        return popped;
+    }
+
+    public int drainTo(Collection<Debt> target) {
+        int drained = size;
+        target.addAll(Arrays.asList(Arrays.copyOf(elements, size)));
+        clear();
+        return drained;
+    }
+
+    public Debt get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public Debt set(int index, Debt debt) {
+        checkIndex(index);
+        Debt previous = elements[index];
+        elements[index] = debt;
+        return previous;
+    }
+
+    // Removes one debt (by identity) from anywhere in the stack, shifting the ones
+    // above it down; O(n)
+    public boolean remove(Debt debt) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == debt) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Debt removeAt(int index) {
+        checkIndex(index);
+        Debt removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        elements[--size] = null;
+        modCount++;
+        return removed;
+    }
+
+    public int indexOf(Debt debt) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i].equals(debt))
+                return i;
+        }
+        return -1;
+    }
+
+    public void sort(Comparator<Debt> bottomToTop) {
+        Arrays.sort(elements, 0, size, bottomToTop);
+        modCount++;
+    }
+
+    public List<Debt> asList() {
+        return new AbstractList<Debt>() {
+            @Override
+            public Debt get(int index) {
+                return DebtStack.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public ArrayList<Debt> toList() {
+        return new ArrayList<>(Arrays.asList(Arrays.copyOf(elements, size)));
+    }
+
+    @Override
+    public Iterator<Debt> iterator() {
+        return new Iterator<Debt>() {
+            private int next = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Debt next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (next >= size)
+                    throw new NoSuchElementException();
+                return elements[next++];
+            }
+        };
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(needed, elements.length * 2));
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+}
@@ -0,0 +1,340 @@
+package Model;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// The state transitions behind both dashboards, with no Swing in sight. The
+// dashboards ask their questions (confirmations, passwords, input parsing) and
+// then call one method here; anything else (tests, benchmarks, a server) can
+// drive the same operations directly.
+//
+// A service wraps one DebtManager, which holds (and saves) all three pillars.
+// Like the manager, it is not synchronized and belongs to one thread at a time.
+public class DebtTowerService {
+
+    // ===========================
+    // Constructor - Wrapping a manager
+    // ===========================
+    // DebtTowerService(DebtManager manager) - Service over the manager's
+    // pillars
+
+    // ===========================
+    // Debt Operations - Client dashboard actions
+    // ===========================
+    // push(String name, long amountCents, double interestRate, long
+    // minimumPaymentCents) - Creates a debt and pushes it as the new TOS
+    // push(Debt debt) - Pushes an existing debt as the new TOS
+    // pay(long amountCents) - Pays the TOS; a paid-off TOS moves to the paid-off
+    // pillar, and if nothing active is left the newest auxiliary debt comes back
+    // moveToAuxiliary() - Parks the TOS on the auxiliary pillar
+    // restoreFromAuxiliary() - Moves the newest auxiliary debt back onto the TOS
+    // deleteTOS() - Removes the TOS permanently
+    // update(long debtId, String name, long balanceCents, double interestRate,
+    // long minimumPaymentCents) - Changes a debt's details on whichever pillar
+    // holds it
+    // find(String name) - First debt with that name (ignoring case): active TOS
+    // down, then auxiliary, then paid off
+    // searchByName(String query, int limit) - Search-as-you-type suggestions
+    // findByNameContaining(String fragment) - Every debt whose name contains the
+    // fragment, in pillar order
+    // findInRanges(long minCents, long maxCents, double minRate, double maxRate[,
+    // Set<Pillar> pillars]) - Balance and rate range filter (every pillar by
+    // default)
+    // query() - Composable query over every pillar, read through a lazy cursor
+    // locate(Debt debt) - Which pillar holds a debt
+    // positionFromTop(Debt debt) - How far below its pillar's top a debt sits
+    // (0 = TOS, -1 = not held)
+
+    // ===========================
+    // Advisor Operations - Advisor dashboard actions
+    // ===========================
+    // solve() - Marks the TOS as paid in full, then moves every auxiliary debt back
+    // onto the active pillar in the order they were parked
+    // schedule(ConsultationRequest request) - Marks the request SCHEDULED, books
+    // the appointment and pushes the consultation fee as the new TOS
+    // reject(ConsultationRequest request) - Marks the request REJECTED
+    // (both throw IllegalStateException, changing nothing, if the status can't
+    // be saved)
+
+    // ===========================
+    // Pillar Views - Read-only copies, newest first
+    // ===========================
+    // peekTOS() / getActiveDebts() / getAuxiliaryDebts() / getPaidOffDebts() /
+    // getManager()
+
+    public enum Location {
+        ACTIVE("Active Stack"), AUXILIARY("Auxiliary Stack"), PAID_OFF("Paid-Off Stack"), NONE("Unknown");
+
+        private final String label;
+
+        Location(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    // Fee added to the client pillar for every scheduled consultation
+    public static final long CONSULTATION_FEE_CENTS = 15000;
+
+    private final DebtManager manager;
+
+    public DebtTowerService(DebtManager manager) {
+        this.manager = manager;
+    }
+
+    public DebtManager getManager() {
+        return manager;
+    }
+
+    public Debt push(String name, long amountCents, double interestRate, long minimumPaymentCents) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Debt name is required");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+        Debt debt = new Debt(IdGenerator.nextId(), name, amountCents, amountCents, interestRate,
+                minimumPaymentCents);
+        manager.pushDebt(debt);
+        return debt;
+    }
+
+    public void push(Debt debt) {
+        manager.pushDebt(debt);
+    }
+
+    // Amounts above the TOS balance pay just the balance (the dashboard asks first)
+    public PaymentResult pay(long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than 0");
+        }
+        Debt top = manager.peekTOS();
+        if (top == null) {
+            return null;
+        }
+
+        long paid = Math.min(amountCents, top.getCurrentBalanceCents());
+        manager.makePayment(paid);
+
+        boolean paidOff = top.isPaidOff();
+        Debt restored = null;
+        if (paidOff) {
+            manager.moveToPaidOff(manager.popDebt());
+            if (manager.peekTOS() == null) {
+                restored = restoreFromAuxiliary();
+            }
+        }
+        return new PaymentResult(top, paid, paidOff, restored);
+    }
+
+    public Debt moveToAuxiliary() {
+        return manager.moveTOSToAuxiliary();
+    }
+
+    public Debt restoreFromAuxiliary() {
+        return manager.restoreFromAuxiliary();
+    }
+
+    public Debt deleteTOS() {
+        return manager.deleteTOS();
+    }
+
+    // Returns the updated debt, or null if no pillar holds that ID
+    public Debt update(long debtId, String name, long balanceCents, double interestRate, long minimumPaymentCents) {
+        if (balanceCents < 0 || interestRate < 0 || minimumPaymentCents < 0) {
+            throw new IllegalArgumentException("Negative values not allowed");
+        }
+        if (manager.updateDebt(debtId, name, balanceCents, interestRate, minimumPaymentCents)) {
+            return manager.findDebt(debtId);
+        }
+        return null;
+    }
+
+    public Debt find(String name) {
+        // Containing matches come back in pillar order, the first exact one wins
+        for (Debt debt : manager.findByNameContaining(name)) {
+            if (debt.getName().equalsIgnoreCase(name))
+                return debt;
+        }
+        return null;
+    }
+
+    public List<Debt> searchByName(String query, int limit) {
+        return manager.searchByName(query, limit);
+    }
+
+    public List<Debt> findByNameContaining(String fragment) {
+        return manager.findByNameContaining(fragment);
+    }
+
+    public DebtQuery query() {
+        return manager.query();
+    }
+
+    public List<Debt> findInRanges(long minCents, long maxCents, double minRate, double maxRate) {
+        return manager.findInRanges(minCents, maxCents, minRate, maxRate, EnumSet.allOf(DebtManager.Pillar.class));
+    }
+
+    public List<Debt> findInRanges(long minCents, long maxCents, double minRate, double maxRate,
+            Set<DebtManager.Pillar> pillars) {
+        return manager.findInRanges(minCents, maxCents, minRate, maxRate, pillars);
+    }
+
+    // Both answered from the manager's slot index, no pillar is scanned
+    public Location locate(Debt debt) {
+        DebtManager.Pillar pillar = manager.locate(debt);
+        if (pillar == null) {
+            return Location.NONE;
+        }
+        switch (pillar) {
+            case ACTIVE:
+                return Location.ACTIVE;
+            case AUXILIARY:
+                return Location.AUXILIARY;
+            default:
+                return Location.PAID_OFF;
+        }
+    }
+
+    public int positionFromTop(Debt debt) {
+        return manager.positionFromTop(debt);
+    }
+
+    // Returns null when there is nothing to solve
+    public SolveResult solve() {
+        Debt top = manager.peekTOS();
+        if (top == null) {
+            return null;
+        }
+        manager.makePayment(top.getCurrentBalanceCents());
+        manager.moveToPaidOff(manager.popDebt());
+
+        // Oldest parked debt goes back first, so the newest ends up on top again
+        int restored = manager.restoreAllFromAuxiliary();
+        return new SolveResult(top, restored);
+    }
+
+    public ConsultationAppointment schedule(ConsultationRequest request) {
+        // Mark the request scheduled (drops it from the advisor's pending list); the
+        // caller's copy only changes once the store has it
+        markRequest(request, "SCHEDULED");
+
+        ConsultationAppointment appointment = new ConsultationAppointment(
+                request.getClientUsername(),
+                request.getClientName(),
+                request.getAdvisorUsername(),
+                request.getAdvisorName(),
+                request.getReason(),
+                request.getPlatform(),
+                new SimpleDateFormat("yyyy-MM-dd").format(new Date()),
+                new Date(),
+                "SCHEDULED");
+        appointment.setRequestId(request.getRequestId());
+
+        // Save the appointment; if that fails, put the request back in the pending list
+        if (!DataManager.addScheduledAppointment(appointment)) {
+            markRequest(request, "PENDING");
+            throw new IllegalStateException("Could not save the appointment for request " + request.getRequestId());
+        }
+
+        // Add consultation fee to client debts
+        String debtName = request.getClientName() + " - Consultation (" + request.getReason() + ")";
+        manager.pushDebt(new Debt(IdGenerator.nextId(), debtName, CONSULTATION_FEE_CENTS, CONSULTATION_FEE_CENTS,
+                0.0, CONSULTATION_FEE_CENTS));
+        return appointment;
+    }
+
+    public void reject(ConsultationRequest request) {
+        // Mark the request rejected (drops it from the advisor's pending list)
+        markRequest(request, "REJECTED");
+    }
+
+    private static void markRequest(ConsultationRequest request, String status) {
+        if (!DataManager.deleteConsultationRequest(request, status)) {
+            throw new IllegalStateException("Could not save consultation request " + request.getRequestId());
+        }
+        request.setStatus(status);
+    }
+
+    public Debt peekTOS() {
+        return manager.peekTOS();
+    }
+
+    public List<Debt> getActiveDebts() {
+        List<Debt> bottomFirst = manager.getStackView();
+        ArrayList<Debt> newestFirst = new ArrayList<>(bottomFirst.size());
+        for (int i = bottomFirst.size() - 1; i >= 0; i--) {
+            newestFirst.add(bottomFirst.get(i));
+        }
+        return Collections.unmodifiableList(newestFirst);
+    }
+
+    public List<Debt> getAuxiliaryDebts() {
+        ArrayList<Debt> newestFirst = manager.getAuxiliaryForVisualization();
+        Collections.reverse(newestFirst);
+        return Collections.unmodifiableList(newestFirst);
+    }
+
+    public List<Debt> getPaidOffDebts() {
+        ArrayList<Debt> newestFirst = manager.getPaidOffForVisualization();
+        Collections.reverse(newestFirst);
+        return Collections.unmodifiableList(newestFirst);
+    }
+
+    public static class PaymentResult {
+        private final Debt debt;
+        private final long paidCents;
+        private final boolean paidOff;
+        private final Debt restored;
+
+        PaymentResult(Debt debt, long paidCents, boolean paidOff, Debt restored) {
+            this.debt = debt;
+            this.paidCents = paidCents;
+            this.paidOff = paidOff;
+            this.restored = restored;
+        }
+
+        public Debt getDebt() {
+            return debt;
+        }
+
+        public long getPaidCents() {
+            return paidCents;
+        }
+
+        public boolean isPaidOff() {
+            return paidOff;
+        }
+
+        // Auxiliary debt that became the TOS because the active pillar emptied
+        public Debt getRestored() {
+            return restored;
+        }
+    }
+
+    public static class SolveResult {
+        private final Debt solved;
+        private final int restoredCount;
+
+        SolveResult(Debt solved, int restoredCount) {
+            this.solved = solved;
+            this.restoredCount = restoredCount;
+        }
+
+        public Debt getSolved() {
+            return solved;
+        }
+
+        public int getRestoredCount() {
+            return restoredCount;
+        }
+    }
+}
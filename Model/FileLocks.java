@@ -0,0 +1,180 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serializes the DataManager file operations that touch the same data file while
+// letting different files (e.g. two users' debt snapshots) be written in
+// parallel. Files hash onto a fixed set of striped locks; locks are reentrant,
+// so a save that goes through several DataManager methods can hold the lock for
+// the whole sequence. Two different files may share a stripe, so never take one
+// file's lock while holding another's.
+//
+// With -Ddepstack.processLocks=true each lock also takes an OS file lock on a
+// "<file>.lock" sidecar, so several app instances sharing a data directory don't
+// write the same file at once.
+public final class FileLocks {
+
+    // ===========================
+    // Locking Methods
+    // ===========================
+    // lock(String filename) - Locks one data file; close the returned handle
+    // (try-with-resources) to release it
+    // withLock(String filename, Call<T, E> body) / withLock(String filename,
+    // Action<E> body) - Runs the body holding the file's lock, passing on what it
+    // returns or throws
+    // isHeldByCurrentThread(String filename)
+
+    static final boolean PROCESS_LOCKS = Boolean.getBoolean("depstack.processLocks");
+    private static final String LOCK_SUFFIX = ".lock";
+    // Power of two, so the stripe is a mask of the name's hash
+    private static final int STRIPES = 64;
+
+    private static final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // OS locks currently held, by filename; only touched under the file's stripe
+    private static final Map<String, ProcessLock> processLocks = new HashMap<>();
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private FileLocks() {
+    }
+
+    public static Handle lock(String filename) {
+        ReentrantLock stripe = stripeFor(filename);
+        stripe.lock();
+        if (PROCESS_LOCKS) {
+            try {
+                acquireProcessLock(filename);
+            } catch (IOException | RuntimeException e) {
+                // Still serialized within this process, just not across processes
+                System.err.println("Error locking " + filename + LOCK_SUFFIX + ": " + e.getMessage());
+                return new Handle(filename, stripe, false);
+            }
+        }
+        return new Handle(filename, stripe, PROCESS_LOCKS);
+    }
+
+    public static <T, E extends Exception> T withLock(String filename, Call<T, E> body) throws E {
+        Handle handle = lock(filename);
+        try {
+            return body.call();
+        } finally {
+            handle.close();
+        }
+    }
+
+    public static <E extends Exception> void withLock(String filename, Action<E> body) throws E {
+        Handle handle = lock(filename);
+        try {
+            body.run();
+        } finally {
+            handle.close();
+        }
+    }
+
+    // Bodies for withLock(); E is inferred, so a body that throws nothing checked
+    // needs no catch
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    public interface Action<E extends Exception> {
+        void run() throws E;
+    }
+
+    public static boolean isHeldByCurrentThread(String filename) {
+        return stripeFor(filename).isHeldByCurrentThread();
+    }
+
+    private static ReentrantLock stripeFor(String filename) {
+        int h = filename.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    // Caller holds the file's stripe
+    private static void acquireProcessLock(String filename) throws IOException {
+        synchronized (processLocks) {
+            ProcessLock held = processLocks.get(filename);
+            if (held != null) {
+                // Nested lock of the same file by the same thread
+                held.depth++;
+                return;
+            }
+        }
+        FileChannel channel = FileChannel.open(Paths.get(filename + LOCK_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            FileLock fileLock = channel.lock();
+            synchronized (processLocks) {
+                processLocks.put(filename, new ProcessLock(channel, fileLock));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Caller holds the file's stripe
+    private static void releaseProcessLock(String filename) {
+        ProcessLock held;
+        synchronized (processLocks) {
+            held = processLocks.get(filename);
+            if (held == null || --held.depth > 0) {
+                return;
+            }
+            processLocks.remove(filename);
+        }
+        try {
+            held.fileLock.release();
+            held.channel.close();
+        } catch (IOException e) {
+            System.err.println("Error unlocking " + filename + LOCK_SUFFIX + ": " + e.getMessage());
+        }
+    }
+
+    public static final class Handle implements AutoCloseable {
+        private final String filename;
+        private final ReentrantLock stripe;
+        private final boolean processLocked;
+        private boolean released;
+
+        private Handle(String filename, ReentrantLock stripe, boolean processLocked) {
+            this.filename = filename;
+            this.stripe = stripe;
+            this.processLocked = processLocked;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (processLocked) {
+                releaseProcessLock(filename);
+            }
+            stripe.unlock();
+        }
+    }
+
+    private static final class ProcessLock {
+        final FileChannel channel;
+        final FileLock fileLock;
+        int depth = 1;
+
+        ProcessLock(FileChannel channel, FileLock fileLock) {
+            this.channel = channel;
+            this.fileLock = fileLock;
+        }
+    }
+}
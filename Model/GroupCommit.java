@@ -0,0 +1,115 @@
+package Model;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// When data files get fsync'd. Snapshot saves always sync before they replace
+// the old file; journal appends and consultation store writes (one per click)
+// are synced in groups by a background thread, so a burst of clicks shares one
+// fsync per file and at most the last interval's operations can be lost in a
+// power failure.
+//
+// -Ddepstack.fsync=group (default) | always | none
+// -Ddepstack.groupCommitMillis=20 - How long a group waits for more appends
+final class GroupCommit {
+
+    // ===========================
+    // Sync Methods
+    // ===========================
+    // force(FileChannel channel) - Syncs a file now (skipped when fsync=none)
+    // forceDirectory(Path dir) - Syncs a directory, making a rename durable
+    // appended(FileChannel channel) - A journal append or store record write
+    // reached the OS; syncs now, soon, or never depending on the mode
+
+    enum Mode {
+        ALWAYS, GROUP, NONE
+    }
+
+    static final Mode MODE = parseMode(System.getProperty("depstack.fsync", "group"));
+    static final long INTERVAL_MILLIS = Long.getLong("depstack.groupCommitMillis", 20);
+
+    // Journals with appends since their last sync
+    private static final Set<FileChannel> pending = ConcurrentHashMap.newKeySet();
+    private static Thread committer;
+
+    private GroupCommit() {
+    }
+
+    private static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error reading depstack.fsync '" + value + "', using group commit");
+            return Mode.GROUP;
+        }
+    }
+
+    static void force(FileChannel channel) throws IOException {
+        if (MODE != Mode.NONE) {
+            channel.force(false);
+        }
+    }
+
+    static void forceDirectory(Path dir) {
+        if (MODE == Mode.NONE) {
+            return;
+        }
+        // Not every platform can open a directory (Windows can't); the rename is
+        // still atomic there, just not guaranteed durable until the OS flushes it
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort
+        }
+    }
+
+    static void appended(FileChannel channel) throws IOException {
+        if (MODE == Mode.ALWAYS) {
+            channel.force(false);
+        } else if (MODE == Mode.GROUP) {
+            pending.add(channel);
+            startCommitter();
+        }
+    }
+
+    private static synchronized void startCommitter() {
+        if (committer != null) {
+            return;
+        }
+        committer = new Thread(GroupCommit::run, "group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    private static void run() {
+        ArrayList<FileChannel> batch = new ArrayList<>();
+        while (true) {
+            try {
+                Thread.sleep(INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            batch.clear();
+            for (FileChannel channel : pending) {
+                // Removed before the sync, so an append racing with it re-queues
+                pending.remove(channel);
+                batch.add(channel);
+            }
+            for (FileChannel channel : batch) {
+                try {
+                    channel.force(false);
+                } catch (ClosedChannelException e) {
+                    // File was closed (and synced or replaced) since its last write
+                } catch (IOException e) {
+                    System.err.println("Error syncing data file: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package Model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IdGenerator {
+
+    // ===========================
+    // ID Methods - Monotonic 64-bit IDs shared by debts, consultation requests
+    // and appointments
+    // ===========================
+    // nextId() - Returns a new ID, always greater than every ID handed out or
+    // observed before
+    // observe(long id) - Records an ID loaded from disk so new IDs never collide
+    // with it
+
+    // The upper bits hold the current time in millis, the low 20 bits a counter,
+    // so IDs keep increasing across restarts without storing a sequence file
+    private static final int COUNTER_BITS = 20;
+
+    private static final AtomicLong last = new AtomicLong();
+
+    public static long nextId() {
+        long floor = System.currentTimeMillis() << COUNTER_BITS;
+        return last.accumulateAndGet(floor, (prev, time) -> Math.max(prev + 1, time));
+    }
+
+    public static void observe(long id) {
+        last.accumulateAndGet(id, Math::max);
+    }
+}
@@ -0,0 +1,77 @@
+package Model;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Map;
+
+public class LegacyMigrator {
+
+    // ===========================
+    // Migration Methods - One-shot conversion of java.io serialized .dat files
+    // into the RecordCodec binary format
+    // ===========================
+    // migrateAll() - Converts every legacy .dat file in the working directory,
+    // returns how many files were rewritten
+    // migrateFile(File file) - Converts a single legacy file based on its name
+    // readLegacyObject(File file) - Reads the serialized object graph of a legacy
+    // file
+
+    public static int migrateAll() {
+        File[] files = new File(".").listFiles((dir, name) -> name.endsWith(".dat"));
+        if (files == null) {
+            return 0;
+        }
+
+        int migrated = 0;
+        for (File file : files) {
+            if (migrateFile(file)) {
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("Migrated " + migrated + " legacy data file(s) to binary format.");
+        }
+        return migrated;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static boolean migrateFile(File file) {
+        if (!file.exists() || file.length() == 0 || RecordCodec.isCodecFile(file)) {
+            return false;
+        }
+
+        String name = file.getName();
+        try {
+            Object legacy = readLegacyObject(file);
+
+            if (name.equals(DataManager.USERS_FILE)) {
+                DataManager.saveUsers((Map<String, User>) legacy);
+            } else if (name.startsWith(DataManager.DEBTS_FILE)) {
+                String username = name.substring(DataManager.DEBTS_FILE.length(), name.length() - 4);
+                DataManager.DebtData data = (DataManager.DebtData) legacy;
+                DataManager.writeUserDebtSnapshot(username,
+                        new DataManager.DebtData(data.getCurrentDebts(), data.getPaidOffDebts(), 0));
+            } else if (name.equals(DataManager.CONSULTATION_REQUESTS_FILE)) {
+                DataManager.writeRequestFile(name, (ArrayList<ConsultationRequest>) legacy);
+            } else if (name.equals(DataManager.SCHEDULED_APPOINTMENTS_FILE)) {
+                DataManager.saveScheduledAppointments((ArrayList<ConsultationAppointment>) legacy);
+            } else if (name.startsWith(DataManager.CLIENT_REQUESTS_FILE)) {
+                DataManager.writeRequestFile(name, (ArrayList<ConsultationRequest>) legacy);
+            } else {
+                return false;
+            }
+
+            System.out.println("Migrated legacy file: " + name);
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Error migrating legacy file " + name + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Object readLegacyObject(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return ois.readObject();
+        }
+    }
+}
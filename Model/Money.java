@@ -0,0 +1,65 @@
+package Model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public final class Money {
+
+    // ===========================
+    // Conversion Methods - Moving between cents (long) and dollars (double/text)
+    // ===========================
+    // toCents(double dollars) - Rounds a dollar amount to whole cents
+    // toDollars(long cents) - Dollar value for display and charts
+    // parse(String text) - Parses user input such as "12.345" exactly, rounding
+    // half-up to cents
+    // format(long cents) - "1234.50" style text (no currency sign)
+
+    // ===========================
+    // Arithmetic Methods - Allocation-free helpers on long cents
+    // ===========================
+    // subtractFloorZero(long balance, long amount) - Balance after a payment,
+    // never below zero
+    // monthlyInterest(long balance, double annualRatePercent) - One month of
+    // interest, rounded half-up to cents
+    // sum(long[] cents, int count) - Sum of the first count entries
+
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private Money() {
+    }
+
+    public static long toCents(double dollars) {
+        return Math.round(dollars * CENTS_PER_DOLLAR);
+    }
+
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    public static long parse(String text) {
+        return new BigDecimal(text.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % CENTS_PER_DOLLAR;
+        return (cents < 0 ? "-" : "") + (abs / CENTS_PER_DOLLAR) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    public static long subtractFloorZero(long balance, long amount) {
+        long result = balance - amount;
+        return result < 0 ? 0 : result;
+    }
+
+    public static long monthlyInterest(long balance, double annualRatePercent) {
+        return Math.round(balance * annualRatePercent / 1200.0);
+    }
+
+    public static long sum(long[] cents, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += cents[i];
+        }
+        return total;
+    }
+}
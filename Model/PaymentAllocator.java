@@ -0,0 +1,339 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Splits one monthly budget across every active debt. Every minimum payment is
+// covered first, and the rest goes wherever the chosen objective says.
+//
+// Unlike DebtManager's fixed AVALANCHE/SNOWBALL comparators, the solver re-ranks
+// the debts every month from their current balances. It simulates each candidate
+// policy to the end and keeps whichever one scores best for the objective.
+//
+// All working state lives in preallocated primitive buffers, so solve() allocates
+// nothing and can run on every keystroke. Like DebtStack, an allocator is not
+// synchronized and belongs to the thread that uses it.
+public class PaymentAllocator {
+
+    // ===========================
+    // Setup Methods - Loading debts into reusable buffers
+    // ===========================
+    // PaymentAllocator() - Creates an empty allocator
+    // load(DebtManager manager) - Loads the manager's active debts
+    // load(List<Debt> debtsBottomFirst) - Copies the debts in, growing the buffers
+    // only when there are more debts than ever before
+
+    // ===========================
+    // Solver Methods - Picking the best allocation for an objective
+    // ===========================
+    // solve(long monthlyBudgetCents, Objective objective) - Simulates every policy
+    // and fills this month's allocation from the winner
+    // getAllocationCents(int index) - Amount the winning plan pays debt index this
+    // month
+    // getMonths() / getTotalInterestCents() / getFirstPayoffMonth() /
+    // isDebtFree() / isBelowMinimums() - Outcome of the winning plan
+
+    public enum Objective {
+        LEAST_INTEREST, FEWEST_MONTHS, FIRST_PAYOFF
+    }
+
+    // Ways of ranking debts for the money left after minimums; keys are
+    // recomputed from the current balances every month
+    public enum Policy {
+        HIGHEST_RATE, // Avalanche, smaller balance breaks ties
+        LARGEST_INTEREST_CHARGE, // Biggest interest bill this month
+        SMALLEST_BALANCE, // Snowball, frees minimums sooner
+        FEWEST_MINIMUMS_LEFT // Closest to done at its minimum payment
+    }
+
+    private static final Policy[] POLICIES = Policy.values();
+
+    private int count;
+    private long[] debtIds = new long[0];
+    private String[] names = new String[0];
+    private long[] startBalanceCents = new long[0];
+    private long[] minimumCents = new long[0];
+    private double[] annualRates = new double[0];
+
+    // Scratch buffers, reused by every solve()
+    private long[] balanceCents = new long[0];
+    private double[] keys = new double[0];
+    private int[] order = new int[0];
+    private long[] allocationCents = new long[0];
+
+    // Winning plan
+    private Objective objective;
+    private Policy policy;
+    private long monthlyBudgetCents;
+    private int months;
+    private int firstPayoffMonth;
+    private boolean debtFree;
+    private boolean belowMinimums;
+    private long totalInterestCents;
+
+    // Outcome of the last simulate() call
+    private int simMonths;
+    private int simFirstPayoffMonth;
+    private boolean simDebtFree;
+    private long simInterestCents;
+
+    public void load(DebtManager manager) {
+        load(manager.getPushOrderView());
+    }
+
+    public void load(List<Debt> debtsBottomFirst) {
+        count = debtsBottomFirst.size();
+        if (count > debtIds.length) {
+            int capacity = Math.max(count, debtIds.length * 2);
+            debtIds = new long[capacity];
+            names = new String[capacity];
+            startBalanceCents = new long[capacity];
+            minimumCents = new long[capacity];
+            annualRates = new double[capacity];
+            balanceCents = new long[capacity];
+            keys = new double[capacity];
+            order = new int[capacity];
+            allocationCents = new long[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            Debt debt = debtsBottomFirst.get(i);
+            debtIds[i] = debt.getDebtId();
+            names[i] = debt.getName();
+            startBalanceCents[i] = debt.getCurrentBalanceCents();
+            minimumCents[i] = debt.getMinimumPaymentCents();
+            annualRates[i] = debt.getInterestRate();
+        }
+        Arrays.fill(names, count, names.length, null);
+        objective = null;
+        policy = null;
+    }
+
+    public int getDebtCount() {
+        return count;
+    }
+
+    public long getMinimumBudgetCents() {
+        return Money.sum(minimumCents, count);
+    }
+
+    public void solve(long monthlyBudgetCents, Objective objective) {
+        this.objective = objective;
+        this.monthlyBudgetCents = monthlyBudgetCents;
+        this.belowMinimums = monthlyBudgetCents < getMinimumBudgetCents();
+
+        Policy best = null;
+        for (Policy candidate : POLICIES) {
+            simulate(candidate, monthlyBudgetCents);
+            if (best == null || beats(objective)) {
+                best = candidate;
+                months = simMonths;
+                firstPayoffMonth = simFirstPayoffMonth;
+                debtFree = simDebtFree;
+                totalInterestCents = simInterestCents;
+            }
+        }
+        policy = best;
+
+        // This month's split under the winning policy
+        System.arraycopy(startBalanceCents, 0, balanceCents, 0, count);
+        Arrays.fill(allocationCents, 0, count, 0);
+        rank(best);
+        distribute(monthlyBudgetCents, allocationCents);
+    }
+
+    // Whether the last simulate() beats the plan kept so far
+    private boolean beats(Objective objective) {
+        if (simDebtFree != debtFree)
+            return simDebtFree;
+        switch (objective) {
+            case FEWEST_MONTHS:
+                if (simMonths != months)
+                    return simMonths < months;
+                return simInterestCents < totalInterestCents;
+            case FIRST_PAYOFF:
+                if (simFirstPayoffMonth != firstPayoffMonth)
+                    return firstPayoffMonth < 0
+                            || (simFirstPayoffMonth >= 0 && simFirstPayoffMonth < firstPayoffMonth);
+                return simInterestCents < totalInterestCents;
+            default:
+                if (simInterestCents != totalInterestCents)
+                    return simInterestCents < totalInterestCents;
+                return simMonths < months;
+        }
+    }
+
+    private void simulate(Policy policy, long budget) {
+        long[] balance = balanceCents;
+        System.arraycopy(startBalanceCents, 0, balance, 0, count);
+        int remaining = 0;
+        for (int i = 0; i < count; i++) {
+            if (balance[i] > 0)
+                remaining++;
+        }
+
+        int month = 0;
+        int first = remaining < count ? 0 : -1;
+        long interest = 0;
+        while (remaining > 0 && month < PayoffSimulator.MAX_MONTHS) {
+            month++;
+            long monthInterest = 0;
+            for (int i = 0; i < count; i++) {
+                if (balance[i] > 0) {
+                    long accrued = Money.monthlyInterest(balance[i], annualRates[i]);
+                    balance[i] += accrued;
+                    monthInterest += accrued;
+                }
+            }
+            interest += monthInterest;
+
+            rank(policy);
+            long paid = distribute(budget, null);
+
+            int open = 0;
+            for (int i = 0; i < count; i++) {
+                if (balance[i] > 0)
+                    open++;
+            }
+            if (open < remaining && first < 0)
+                first = month;
+            remaining = open;
+            if (remaining > 0 && paid <= monthInterest)
+                break; // Never catches up with the interest
+        }
+
+        simMonths = month;
+        simFirstPayoffMonth = first;
+        simDebtFree = remaining == 0;
+        simInterestCents = interest;
+    }
+
+    // Orders open debts by the policy's key, best first (insertion sort: the order
+    // barely changes from one month to the next, so this is close to linear)
+    private void rank(Policy policy) {
+        int open = 0;
+        for (int i = 0; i < count; i++) {
+            if (balanceCents[i] <= 0) {
+                keys[i] = -1;
+                continue;
+            }
+            keys[i] = key(policy, i);
+            order[open++] = i;
+        }
+        for (int k = open; k < count; k++) {
+            order[k] = -1;
+        }
+        for (int k = 1; k < open; k++) {
+            int current = order[k];
+            int j = k - 1;
+            while (j >= 0 && before(current, order[j])) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    // Higher key = paid first; every key is >= 0 for an open debt
+    private double key(Policy policy, int i) {
+        switch (policy) {
+            case LARGEST_INTEREST_CHARGE:
+                return balanceCents[i] * annualRates[i];
+            case SMALLEST_BALANCE:
+                return 1.0 / balanceCents[i];
+            case FEWEST_MINIMUMS_LEFT:
+                return minimumCents[i] <= 0 ? 0 : (double) minimumCents[i] / balanceCents[i];
+            default:
+                return annualRates[i];
+        }
+    }
+
+    private boolean before(int a, int b) {
+        if (keys[a] != keys[b])
+            return keys[a] > keys[b];
+        if (balanceCents[a] != balanceCents[b])
+            return balanceCents[a] < balanceCents[b];
+        return a > b; // Newer debt (higher push index) first, like the LIFO stack
+    }
+
+    // Minimums in ranked order, then the rest cascading down the ranking. Records
+    // the split into allocation when given; returns the total paid.
+    private long distribute(long budget, long[] allocation) {
+        long[] balance = balanceCents;
+        long available = budget;
+        long paid = 0;
+        for (int k = 0; k < count && available > 0 && order[k] >= 0; k++) {
+            int i = order[k];
+            long pay = Math.min(Math.min(minimumCents[i], balance[i]), available);
+            balance[i] -= pay;
+            available -= pay;
+            paid += pay;
+            if (allocation != null)
+                allocation[i] += pay;
+        }
+        for (int k = 0; k < count && available > 0 && order[k] >= 0; k++) {
+            int i = order[k];
+            long pay = Math.min(balance[i], available);
+            balance[i] -= pay;
+            available -= pay;
+            paid += pay;
+            if (allocation != null)
+                allocation[i] += pay;
+        }
+        return paid;
+    }
+
+    public Objective getObjective() {
+        return objective;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public long getMonthlyBudgetCents() {
+        return monthlyBudgetCents;
+    }
+
+    public long getAllocationCents(int index) {
+        checkIndex(index);
+        return allocationCents[index];
+    }
+
+    public long getDebtId(int index) {
+        checkIndex(index);
+        return debtIds[index];
+    }
+
+    public String getDebtName(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    // Month the first debt reaches zero (0 if one started paid, -1 if never)
+    public int getFirstPayoffMonth() {
+        return firstPayoffMonth;
+    }
+
+    public boolean isDebtFree() {
+        return debtFree;
+    }
+
+    // The budget doesn't cover every minimum payment; the ranking decides which
+    // minimums get paid
+    public boolean isBelowMinimums() {
+        return belowMinimums;
+    }
+
+    public long getTotalInterestCents() {
+        return totalInterestCents;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= count)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+    }
+}
@@ -0,0 +1,398 @@
+package Model;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+public class PayoffForecaster {
+
+    // ===========================
+    // Setup Methods - Copying debts into primitive buffers once per portfolio
+    // ===========================
+    // PayoffForecaster(DebtManager manager) - Forecasts the manager's active debts
+    // PayoffForecaster(List<Debt> debtsBottomFirst) - Forecasts a list of debts in
+    // push order (last element is the LIFO TOS)
+
+    // ===========================
+    // Forecast Methods - Monte Carlo payoff paths
+    // ===========================
+    // forecast(long monthlyBudgetCents, int paths, long seed) - Runs paths with
+    // the default assumptions
+    // forecast(long monthlyBudgetCents, int paths, long seed, Assumptions
+    // assumptions) - Runs paths in parallel chunks, each with its own split of the
+    // random generator, and collects payoff months per strategy
+
+    // ===========================
+    // Assumptions - Rate changes, missed payments and windfalls per month
+    // Forecast / Distribution - Payoff month percentiles per strategy
+    // ===========================
+
+    // Paths per parallel task; every task owns its generator split and buffers
+    private static final int PATHS_PER_CHUNK = 2048;
+    // A strategy gives up on a path after this many months in a row where the
+    // payments didn't outrun the interest
+    private static final int MAX_STALLED_MONTHS = 12;
+    // Histogram slot for paths that never pay off within MAX_MONTHS
+    private static final int NEVER = PayoffSimulator.MAX_MONTHS + 1;
+
+    private static final DebtManager.Strategy[] STRATEGIES = DebtManager.Strategy.values();
+
+    private final int count;
+    private final long[] startBalanceCents;
+    private final long[] minimumCents;
+    private final double[] annualRates;
+    // Payment priority per strategy ordinal, same orders PayoffSimulator uses
+    private final int[][] orders;
+
+    public PayoffForecaster(DebtManager manager) {
+        this(manager.getPushOrderView());
+    }
+
+    public PayoffForecaster(List<Debt> debtsBottomFirst) {
+        PayoffSimulator simulator = new PayoffSimulator(debtsBottomFirst);
+        count = simulator.getDebtCount();
+        startBalanceCents = new long[count];
+        minimumCents = new long[count];
+        annualRates = new double[count];
+        for (int i = 0; i < count; i++) {
+            startBalanceCents[i] = simulator.startBalanceCents(i);
+            minimumCents[i] = simulator.minimumCents(i);
+            annualRates[i] = simulator.annualRate(i);
+        }
+        orders = new int[STRATEGIES.length][];
+        for (DebtManager.Strategy strategy : STRATEGIES) {
+            orders[strategy.ordinal()] = simulator.priorityOrder(strategy);
+        }
+    }
+
+    public int getDebtCount() {
+        return count;
+    }
+
+    public long getMinimumBudgetCents() {
+        return Money.sum(minimumCents, count);
+    }
+
+    public Forecast forecast(long monthlyBudgetCents, int paths, long seed) {
+        return forecast(monthlyBudgetCents, paths, seed, Assumptions.DEFAULT);
+    }
+
+    public Forecast forecast(long monthlyBudgetCents, int paths, long seed, Assumptions assumptions) {
+        if (paths <= 0) {
+            throw new IllegalArgumentException("paths must be positive: " + paths);
+        }
+
+        // Splits are taken up front in chunk order, so the same seed gives the same
+        // forecast no matter how the stream schedules the chunks
+        int chunks = (paths + PATHS_PER_CHUNK - 1) / PATHS_PER_CHUNK;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            randoms[c] = root.split();
+        }
+
+        Tally tally = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> runChunk(randoms[c], Math.min(PATHS_PER_CHUNK, paths - c * PATHS_PER_CHUNK),
+                        monthlyBudgetCents, assumptions))
+                .reduce(Tally::merge)
+                .get();
+        return new Forecast(monthlyBudgetCents, paths, tally);
+    }
+
+    private Tally runChunk(SplittableRandom random, int paths, long budget, Assumptions assumptions) {
+        int strategies = STRATEGIES.length;
+        Tally tally = new Tally();
+        long[][] balance = new long[strategies][count];
+        long[] interest = new long[strategies];
+        int[] remaining = new int[strategies];
+        int[] finishedMonth = new int[strategies];
+        int[] stalledMonths = new int[strategies];
+        double[] rates = new double[count];
+
+        int openDebts = 0;
+        for (int i = 0; i < count; i++) {
+            if (startBalanceCents[i] > 0)
+                openDebts++;
+        }
+
+        for (int path = 0; path < paths; path++) {
+            for (int s = 0; s < strategies; s++) {
+                System.arraycopy(startBalanceCents, 0, balance[s], 0, count);
+                interest[s] = 0;
+                remaining[s] = openDebts;
+                finishedMonth[s] = openDebts == 0 ? 0 : -1;
+                stalledMonths[s] = 0;
+            }
+            System.arraycopy(annualRates, 0, rates, 0, count);
+
+            int open = openDebts == 0 ? 0 : strategies;
+            int month = 0;
+            while (open > 0 && month < PayoffSimulator.MAX_MONTHS) {
+                month++;
+
+                // Shocks are drawn once per month and shared by every strategy, so
+                // the strategies are compared on exactly the same path
+                for (int i = 0; i < count; i++) {
+                    if (random.nextDouble() < assumptions.rateChangeProbability) {
+                        double rate = rates[i] + random.nextDouble(-assumptions.maxRateChange,
+                                assumptions.maxRateChange);
+                        rates[i] = Math.max(0, Math.min(assumptions.maxRate, rate));
+                    }
+                }
+                long available = random.nextDouble() < assumptions.missedPaymentProbability ? 0 : budget;
+                if (random.nextDouble() < assumptions.windfallProbability) {
+                    available += Math.round(budget * assumptions.windfallMonths * random.nextDouble(0.5, 1.5));
+                }
+
+                for (int s = 0; s < strategies; s++) {
+                    if (finishedMonth[s] >= 0)
+                        continue;
+                    if (step(balance[s], rates, orders[s], available, interest, s, remaining)) {
+                        stalledMonths[s] = 0;
+                    } else {
+                        stalledMonths[s]++;
+                    }
+                    if (remaining[s] == 0) {
+                        finishedMonth[s] = month;
+                        open--;
+                    } else if (stalledMonths[s] >= MAX_STALLED_MONTHS) {
+                        finishedMonth[s] = NEVER;
+                        open--;
+                    }
+                }
+            }
+
+            for (int s = 0; s < strategies; s++) {
+                tally.record(s, finishedMonth[s] < 0 ? NEVER : finishedMonth[s], interest[s]);
+            }
+        }
+        return tally;
+    }
+
+    // One month for one strategy: interest, minimums, then the rest by priority.
+    // Returns true when the month's payments outran its interest.
+    private boolean step(long[] balance, double[] rates, int[] order, long available, long[] interest, int s,
+            int[] remaining) {
+        long monthInterest = 0;
+        for (int i = 0; i < count; i++) {
+            if (balance[i] > 0) {
+                long accrued = Money.monthlyInterest(balance[i], rates[i]);
+                balance[i] += accrued;
+                monthInterest += accrued;
+            }
+        }
+        interest[s] += monthInterest;
+
+        long paid = 0;
+        for (int k = 0; k < count && available > 0; k++) {
+            int i = order[k];
+            if (balance[i] > 0) {
+                long pay = Math.min(Math.min(minimumCents[i], balance[i]), available);
+                balance[i] -= pay;
+                available -= pay;
+                paid += pay;
+                if (balance[i] == 0)
+                    remaining[s]--;
+            }
+        }
+        for (int k = 0; k < count && available > 0; k++) {
+            int i = order[k];
+            if (balance[i] > 0) {
+                long pay = Math.min(balance[i], available);
+                balance[i] -= pay;
+                available -= pay;
+                paid += pay;
+                if (balance[i] == 0)
+                    remaining[s]--;
+            }
+        }
+        return paid > monthInterest;
+    }
+
+    // Per-chunk counts of paths by payoff month, merged after the stream finishes
+    private static class Tally {
+        final int[][] histogram = new int[STRATEGIES.length][NEVER + 1];
+        final long[] interestCents = new long[STRATEGIES.length];
+
+        void record(int strategy, int month, long interest) {
+            histogram[strategy][month]++;
+            interestCents[strategy] += interest;
+        }
+
+        Tally merge(Tally other) {
+            for (int s = 0; s < histogram.length; s++) {
+                for (int m = 0; m <= NEVER; m++) {
+                    histogram[s][m] += other.histogram[s][m];
+                }
+                interestCents[s] += other.interestCents[s];
+            }
+            return this;
+        }
+    }
+
+    public static class Assumptions {
+        // A variable rate reprices about once a year by up to 2 points, one month in
+        // fifty is missed, and one in a hundred brings a windfall of about a
+        // month's budget
+        public static final Assumptions DEFAULT = new Assumptions(1.0 / 12, 2.0, 36.0, 0.02, 0.01, 1.0);
+
+        private final double rateChangeProbability;
+        private final double maxRateChange;
+        private final double maxRate;
+        private final double missedPaymentProbability;
+        private final double windfallProbability;
+        private final double windfallMonths;
+
+        // Probabilities are per month (rate changes per debt per month), rates are in
+        // percentage points, windfalls are sized in months of budget (drawn between
+        // half and one and a half times that)
+        public Assumptions(double rateChangeProbability, double maxRateChange, double maxRate,
+                double missedPaymentProbability, double windfallProbability, double windfallMonths) {
+            this.rateChangeProbability = rateChangeProbability;
+            this.maxRateChange = maxRateChange;
+            this.maxRate = maxRate;
+            this.missedPaymentProbability = missedPaymentProbability;
+            this.windfallProbability = windfallProbability;
+            this.windfallMonths = windfallMonths;
+        }
+
+        public double getRateChangeProbability() {
+            return rateChangeProbability;
+        }
+
+        public double getMaxRateChange() {
+            return maxRateChange;
+        }
+
+        public double getMaxRate() {
+            return maxRate;
+        }
+
+        public double getMissedPaymentProbability() {
+            return missedPaymentProbability;
+        }
+
+        public double getWindfallProbability() {
+            return windfallProbability;
+        }
+
+        public double getWindfallMonths() {
+            return windfallMonths;
+        }
+    }
+
+    public static class Forecast {
+        private final long monthlyBudgetCents;
+        private final int paths;
+        private final EnumMap<DebtManager.Strategy, Distribution> distributions = new EnumMap<>(
+                DebtManager.Strategy.class);
+
+        Forecast(long monthlyBudgetCents, int paths, Tally tally) {
+            this.monthlyBudgetCents = monthlyBudgetCents;
+            this.paths = paths;
+            for (DebtManager.Strategy strategy : STRATEGIES) {
+                int s = strategy.ordinal();
+                distributions.put(strategy,
+                        new Distribution(strategy, paths, tally.histogram[s], tally.interestCents[s]));
+            }
+        }
+
+        public long getMonthlyBudgetCents() {
+            return monthlyBudgetCents;
+        }
+
+        public int getPaths() {
+            return paths;
+        }
+
+        public Distribution getDistribution(DebtManager.Strategy strategy) {
+            return distributions.get(strategy);
+        }
+
+        // Most likely to be debt-free, then the earliest median, then the least interest
+        public DebtManager.Strategy getBestStrategy() {
+            Distribution best = null;
+            for (Distribution d : distributions.values()) {
+                if (best == null || d.isBetterThan(best))
+                    best = d;
+            }
+            return best.getStrategy();
+        }
+    }
+
+    public static class Distribution {
+        private final DebtManager.Strategy strategy;
+        private final int paths;
+        // Paths by payoff month; the last slot counts paths that never pay off
+        private final int[] histogram;
+        private final long totalInterestCents;
+
+        Distribution(DebtManager.Strategy strategy, int paths, int[] histogram, long totalInterestCents) {
+            this.strategy = strategy;
+            this.paths = paths;
+            this.histogram = histogram;
+            this.totalInterestCents = totalInterestCents;
+        }
+
+        public DebtManager.Strategy getStrategy() {
+            return strategy;
+        }
+
+        // Nearest-rank percentile (0-100) of the payoff month, -1 if that share of
+        // paths never pays off
+        public int getPercentileMonths(double percentile) {
+            long rank = (long) Math.ceil(percentile / 100.0 * paths);
+            rank = Math.max(1, Math.min(paths, rank));
+            long seen = 0;
+            for (int month = 0; month < NEVER; month++) {
+                seen += histogram[month];
+                if (seen >= rank)
+                    return month;
+            }
+            return -1;
+        }
+
+        // null when that percentile never pays off
+        public Date getPayoffDate(double percentile) {
+            int months = getPercentileMonths(percentile);
+            if (months < 0)
+                return null;
+            Calendar calendar = Calendar.getInstance();
+            calendar.add(Calendar.MONTH, months);
+            return calendar.getTime();
+        }
+
+        public double getDebtFreeProbability() {
+            return (paths - histogram[NEVER]) / (double) paths;
+        }
+
+        public long getMeanInterestCents() {
+            return totalInterestCents / paths;
+        }
+
+        boolean isBetterThan(Distribution other) {
+            if (histogram[NEVER] != other.histogram[NEVER])
+                return histogram[NEVER] < other.histogram[NEVER];
+            int median = getPercentileMonths(50);
+            int otherMedian = other.getPercentileMonths(50);
+            if (median != otherMedian)
+                return otherMedian < 0 || (median >= 0 && median < otherMedian);
+            return totalInterestCents < other.totalInterestCents;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: P10 %s, P50 %s, P90 %s, %.1f%% debt-free, $%s mean interest", strategy,
+                    months(getPercentileMonths(10)), months(getPercentileMonths(50)),
+                    months(getPercentileMonths(90)), getDebtFreeProbability() * 100,
+                    Money.format(getMeanInterestCents()));
+        }
+
+        private static String months(int months) {
+            return months < 0 ? "never" : months + " months";
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+
+public class PayoffSimulator {
+
+    // ===========================
+    // Setup Methods - Copying debts into primitive buffers once per portfolio
+    // ===========================
+    // PayoffSimulator(DebtManager manager) - Simulates the manager's active debts
+    // PayoffSimulator(List<Debt> debtsBottomFirst) - Simulates a list of debts in
+    // push order (last element is the LIFO TOS)
+
+    // ===========================
+    // Simulation Methods - Month-by-month amortization
+    // ===========================
+    // simulate(Strategy strategy, long monthlyBudgetCents) - Runs one scenario
+    // into a new Result
+    // simulate(Strategy strategy, long monthlyBudgetCents, Result into) - Runs
+    // one scenario reusing a Result's buffers (no allocation at all)
+    // compareStrategies(long monthlyBudgetCents) - Runs AVALANCHE, SNOWBALL and
+    // LIFO with the same budget
+    // getMinimumBudgetCents() - Sum of all minimum payments
+
+    // ===========================
+    // Result - Months to freedom, total interest and per-debt payoff timeline
+    // ===========================
+
+    // Simulations stop after 100 years, or as soon as a month's payments no longer
+    // outrun its interest (the balance could only grow from there); either way the
+    // result has isDebtFree() false
+    public static final int MAX_MONTHS = 1200;
+
+    private final int count;
+    private final long[] debtIds;
+    private final String[] names;
+    private final long[] startBalanceCents;
+    private final long[] minimumCents;
+    private final double[] annualRates;
+    // Payment priority per strategy: debt indexes, first one gets extra money first
+    private final EnumMap<DebtManager.Strategy, int[]> priorities = new EnumMap<>(DebtManager.Strategy.class);
+    // Working balances, reset at the start of every run (so one simulator must not
+    // run two scenarios at once; give each thread its own)
+    private final long[] balanceCents;
+
+    public PayoffSimulator(DebtManager manager) {
+        this(manager.getPushOrderView());
+    }
+
+    public PayoffSimulator(List<Debt> debtsBottomFirst) {
+        count = debtsBottomFirst.size();
+        debtIds = new long[count];
+        names = new String[count];
+        startBalanceCents = new long[count];
+        minimumCents = new long[count];
+        annualRates = new double[count];
+        balanceCents = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            Debt debt = debtsBottomFirst.get(i);
+            debtIds[i] = debt.getDebtId();
+            names[i] = debt.getName();
+            startBalanceCents[i] = debt.getCurrentBalanceCents();
+            minimumCents[i] = debt.getMinimumPaymentCents();
+            annualRates[i] = debt.getInterestRate();
+        }
+
+        // LIFO pays the TOS (last pushed) first
+        int[] lifo = new int[count];
+        for (int i = 0; i < count; i++) {
+            lifo[i] = count - 1 - i;
+        }
+        priorities.put(DebtManager.Strategy.LIFO, lifo);
+        // Same orders DebtManager keeps, read top (last) to bottom
+        priorities.put(DebtManager.Strategy.AVALANCHE, priority(debtsBottomFirst, DebtManager.AVALANCHE_ORDER));
+        priorities.put(DebtManager.Strategy.SNOWBALL, priority(debtsBottomFirst, DebtManager.SNOWBALL_ORDER));
+    }
+
+    private static int[] priority(List<Debt> debts, Comparator<Debt> bottomToTop) {
+        List<Integer> indexes = new ArrayList<>(debts.size());
+        for (int i = 0; i < debts.size(); i++) {
+            indexes.add(i);
+        }
+        indexes.sort((a, b) -> bottomToTop.compare(debts.get(b), debts.get(a)));
+        int[] order = new int[indexes.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = indexes.get(i);
+        }
+        return order;
+    }
+
+    public int getDebtCount() {
+        return count;
+    }
+
+    public long getMinimumBudgetCents() {
+        return Money.sum(minimumCents, count);
+    }
+
+    // Read-only column access for PayoffForecaster, which runs its own stochastic
+    // loop over the same starting state and priority orders
+    long startBalanceCents(int index) {
+        return startBalanceCents[index];
+    }
+
+    long minimumCents(int index) {
+        return minimumCents[index];
+    }
+
+    double annualRate(int index) {
+        return annualRates[index];
+    }
+
+    int[] priorityOrder(DebtManager.Strategy strategy) {
+        return priorities.get(strategy);
+    }
+
+    public Result simulate(DebtManager.Strategy strategy, long monthlyBudgetCents) {
+        return simulate(strategy, monthlyBudgetCents, new Result(this));
+    }
+
+    public Result simulate(DebtManager.Strategy strategy, long monthlyBudgetCents, Result into) {
+        if (into.simulator != this) {
+            throw new IllegalArgumentException("Result belongs to a different simulator");
+        }
+        int[] order = priorities.get(strategy);
+        long[] balance = balanceCents;
+        int[] payoffMonth = into.payoffMonth;
+        long[] interestPaid = into.interestPaidCents;
+
+        System.arraycopy(startBalanceCents, 0, balance, 0, count);
+        int remaining = 0;
+        for (int i = 0; i < count; i++) {
+            interestPaid[i] = 0;
+            if (balance[i] > 0) {
+                payoffMonth[i] = -1;
+                remaining++;
+            } else {
+                payoffMonth[i] = 0;
+            }
+        }
+
+        long totalInterest = 0;
+        long totalPaid = 0;
+        int month = 0;
+
+        while (remaining > 0 && month < MAX_MONTHS) {
+            month++;
+
+            long paidBefore = totalPaid;
+            long interestBefore = totalInterest;
+
+            // 1. Interest accrues on every open balance
+            for (int i = 0; i < count; i++) {
+                if (balance[i] > 0) {
+                    long interest = Money.monthlyInterest(balance[i], annualRates[i]);
+                    balance[i] += interest;
+                    interestPaid[i] += interest;
+                    totalInterest += interest;
+                }
+            }
+
+            // 2. Minimum payments, in priority order if the budget runs short
+            long available = monthlyBudgetCents;
+            for (int k = 0; k < count && available > 0; k++) {
+                int i = order[k];
+                if (balance[i] > 0) {
+                    long pay = Math.min(Math.min(minimumCents[i], balance[i]), available);
+                    balance[i] -= pay;
+                    available -= pay;
+                    totalPaid += pay;
+                }
+            }
+
+            // 3. Whatever is left goes to the highest-priority open debt, cascading on
+            for (int k = 0; k < count && available > 0; k++) {
+                int i = order[k];
+                if (balance[i] > 0) {
+                    long pay = Math.min(balance[i], available);
+                    balance[i] -= pay;
+                    available -= pay;
+                    totalPaid += pay;
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                if (balance[i] == 0 && payoffMonth[i] < 0) {
+                    payoffMonth[i] = month;
+                    remaining--;
+                }
+            }
+
+            if (remaining > 0 && totalPaid - paidBefore <= totalInterest - interestBefore) {
+                // Budget doesn't cover the interest, the debt would never be paid
+                break;
+            }
+        }
+
+        into.strategy = strategy;
+        into.monthlyBudgetCents = monthlyBudgetCents;
+        into.months = month;
+        into.debtFree = remaining == 0;
+        into.totalInterestCents = totalInterest;
+        into.totalPaidCents = totalPaid;
+        return into;
+    }
+
+    public EnumMap<DebtManager.Strategy, Result> compareStrategies(long monthlyBudgetCents) {
+        EnumMap<DebtManager.Strategy, Result> results = new EnumMap<>(DebtManager.Strategy.class);
+        for (DebtManager.Strategy strategy : DebtManager.Strategy.values()) {
+            results.put(strategy, simulate(strategy, monthlyBudgetCents));
+        }
+        return results;
+    }
+
+    public static class Result {
+        private final PayoffSimulator simulator;
+        private final int[] payoffMonth;
+        private final long[] interestPaidCents;
+        private DebtManager.Strategy strategy;
+        private long monthlyBudgetCents;
+        private int months;
+        private boolean debtFree;
+        private long totalInterestCents;
+        private long totalPaidCents;
+
+        // Buffers sized for one simulator; pass to simulate(..., into) to reuse them
+        public Result(PayoffSimulator simulator) {
+            this.simulator = simulator;
+            this.payoffMonth = new int[simulator.count];
+            this.interestPaidCents = new long[simulator.count];
+        }
+
+        public DebtManager.Strategy getStrategy() {
+            return strategy;
+        }
+
+        public long getMonthlyBudgetCents() {
+            return monthlyBudgetCents;
+        }
+
+        // Months until the last debt is paid (months simulated if it never is)
+        public int getMonths() {
+            return months;
+        }
+
+        public boolean isDebtFree() {
+            return debtFree;
+        }
+
+        public long getTotalInterestCents() {
+            return totalInterestCents;
+        }
+
+        public long getTotalPaidCents() {
+            return totalPaidCents;
+        }
+
+        public int getDebtCount() {
+            return payoffMonth.length;
+        }
+
+        public long getDebtId(int index) {
+            return simulator.debtIds[index];
+        }
+
+        public String getDebtName(int index) {
+            return simulator.names[index];
+        }
+
+        // Month the debt reached zero (0 if it started paid, -1 if never)
+        public int getPayoffMonth(int index) {
+            return payoffMonth[index];
+        }
+
+        public long getInterestPaidCents(int index) {
+            return interestPaidCents[index];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s, $%s interest, $%s paid", strategy,
+                    debtFree ? months + " months" : "not paid off (stopped after " + months + " months)",
+                    Money.format(totalInterestCents), Money.format(totalPaidCents));
+        }
+    }
+}
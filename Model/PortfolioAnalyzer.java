@@ -0,0 +1,233 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class PortfolioAnalyzer {
+
+    // ===========================
+    // Analysis Methods - Comparing payoff strategies for many clients in parallel
+    // ===========================
+    // getAdvisorClients(String advisorUsername) - Every client that has sent the
+    // advisor a consultation request
+    // analyzeAdvisorClients(String advisorUsername) - Analyzes all of an
+    // advisor's clients
+    // analyze(List<String> clientUsernames) - Loads each client's debts and runs
+    // every strategy, split across the fork/join pool
+    // analyzeClient(String clientUsername) - Runs the comparison for one client
+    // (the file load is a managed block, so the pool adds a worker while it waits)
+
+    // ===========================
+    // ClientReport - Best strategy, interest saved and payoff date for one client
+    // ===========================
+
+    // Clients per leaf task
+    private static final int LEAF_SIZE = 8;
+
+    private final ForkJoinPool pool;
+    // Monthly budget assumed for every client, as a multiple of their minimums
+    private final double budgetFactor;
+
+    public PortfolioAnalyzer() {
+        this(ForkJoinPool.commonPool(), 1.10);
+    }
+
+    public PortfolioAnalyzer(ForkJoinPool pool, double budgetFactor) {
+        this.pool = pool;
+        this.budgetFactor = budgetFactor;
+    }
+
+    public static List<String> getAdvisorClients(String advisorUsername) {
+        LinkedHashSet<String> clients = new LinkedHashSet<>();
+        for (ConsultationRequest request : ConsultationStore.getInstance().getByAdvisor(advisorUsername)) {
+            clients.add(request.getClientUsername());
+        }
+        return new ArrayList<>(clients);
+    }
+
+    public ClientReport[] analyzeAdvisorClients(String advisorUsername) {
+        return analyze(getAdvisorClients(advisorUsername));
+    }
+
+    public ClientReport[] analyze(List<String> clientUsernames) {
+        ClientReport[] reports = new ClientReport[clientUsernames.size()];
+        pool.invoke(new AnalyzeTask(clientUsernames, reports, 0, reports.length));
+        return reports;
+    }
+
+    public ClientReport analyzeClient(String clientUsername) {
+        try {
+            DebtLoader loader = new DebtLoader(clientUsername);
+            ForkJoinPool.managedBlock(loader);
+            PayoffSimulator simulator = new PayoffSimulator(loader.data.getCurrentDebts());
+            long budget = Math.round(simulator.getMinimumBudgetCents() * budgetFactor);
+            return new ClientReport(clientUsername, simulator.getDebtCount(), budget,
+                    simulator.compareStrategies(budget));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ClientReport(clientUsername, "Interrupted");
+        } catch (RuntimeException e) {
+            System.err.println("Error analyzing client " + clientUsername + ": " + e.getMessage());
+            return new ClientReport(clientUsername, e.getMessage());
+        }
+    }
+
+    // Loading a client's debts blocks on file I/O (and the file's lock) and may
+    // replay a journal. Run as a managed block, so a pool that is waiting on loads
+    // compensates with extra workers instead of stalling (the common pool is shared
+    // with the forecaster's parallel streams)
+    private static class DebtLoader implements ForkJoinPool.ManagedBlocker {
+        private final String clientUsername;
+        private DataManager.DebtData data;
+
+        DebtLoader(String clientUsername) {
+            this.clientUsername = clientUsername;
+        }
+
+        @Override
+        public boolean block() {
+            data = DataManager.loadUserDebts(clientUsername);
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return data != null;
+        }
+    }
+
+    private class AnalyzeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> clients;
+        private final ClientReport[] reports;
+        private final int from;
+        private final int to;
+
+        AnalyzeTask(List<String> clients, ClientReport[] reports, int from, int to) {
+            this.clients = clients;
+            this.reports = reports;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    reports[i] = analyzeClient(clients.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new AnalyzeTask(clients, reports, from, mid), new AnalyzeTask(clients, reports, mid, to));
+        }
+    }
+
+    public static class ClientReport {
+        private final String clientUsername;
+        private final int debtCount;
+        private final long monthlyBudgetCents;
+        private final DebtManager.Strategy bestStrategy;
+        private final PayoffSimulator.Result best;
+        private final long interestSavedCents;
+        private final Date payoffDate;
+        private final String error;
+
+        ClientReport(String clientUsername, int debtCount, long monthlyBudgetCents,
+                EnumMap<DebtManager.Strategy, PayoffSimulator.Result> results) {
+            this.clientUsername = clientUsername;
+            this.debtCount = debtCount;
+            this.monthlyBudgetCents = monthlyBudgetCents;
+            this.error = null;
+
+            // Best = pays everything off with the least interest; savings are measured
+            // against the most expensive strategy that also pays everything off. A run
+            // that is not debt-free stopped early, so its interest covers only part of
+            // the payoff and can't be compared
+            PayoffSimulator.Result bestResult = null;
+            PayoffSimulator.Result worstResult = null;
+            for (PayoffSimulator.Result result : results.values()) {
+                if (bestResult == null || isBetter(result, bestResult)) {
+                    bestResult = result;
+                }
+                if (result.isDebtFree() && (worstResult == null
+                        || result.getTotalInterestCents() > worstResult.getTotalInterestCents())) {
+                    worstResult = result;
+                }
+            }
+            this.best = bestResult;
+            this.bestStrategy = bestResult.getStrategy();
+            // No saving to report when no strategy pays the debts off
+            this.interestSavedCents = bestResult.isDebtFree()
+                    ? worstResult.getTotalInterestCents() - bestResult.getTotalInterestCents()
+                    : 0;
+
+            if (bestResult.isDebtFree()) {
+                Calendar calendar = Calendar.getInstance();
+                calendar.add(Calendar.MONTH, bestResult.getMonths());
+                this.payoffDate = calendar.getTime();
+            } else {
+                this.payoffDate = null;
+            }
+        }
+
+        ClientReport(String clientUsername, String error) {
+            this.clientUsername = clientUsername;
+            this.debtCount = 0;
+            this.monthlyBudgetCents = 0;
+            this.bestStrategy = null;
+            this.best = null;
+            this.interestSavedCents = 0;
+            this.payoffDate = null;
+            this.error = error;
+        }
+
+        private static boolean isBetter(PayoffSimulator.Result a, PayoffSimulator.Result b) {
+            if (a.isDebtFree() != b.isDebtFree()) {
+                return a.isDebtFree();
+            }
+            return a.getTotalInterestCents() < b.getTotalInterestCents();
+        }
+
+        public String getClientUsername() {
+            return clientUsername;
+        }
+
+        public int getDebtCount() {
+            return debtCount;
+        }
+
+        public long getMonthlyBudgetCents() {
+            return monthlyBudgetCents;
+        }
+
+        public DebtManager.Strategy getBestStrategy() {
+            return bestStrategy;
+        }
+
+        public PayoffSimulator.Result getBestResult() {
+            return best;
+        }
+
+        // Against the costliest debt-free strategy; 0 when the budget never pays off
+        public long getInterestSavedCents() {
+            return interestSavedCents;
+        }
+
+        // null when the budget never pays the debts off
+        public Date getPayoffDate() {
+            return payoffDate;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
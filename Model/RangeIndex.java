@@ -0,0 +1,125 @@
+package Model;
+
+import java.util.Arrays;
+
+// Debts sorted by one long key (balance cents, rate basis points, ...) in
+// parallel primitive arrays, ties broken by debt ID. Range bounds are two binary
+// searches, so a range query costs O(log n + k). Adding or removing a debt shifts
+// the arrays above it with one arraycopy.
+//
+// Not synchronized; it belongs to its manager's thread like the manager itself.
+final class RangeIndex {
+
+    // ===========================
+    // Index Methods
+    // ===========================
+    // add(long key, Debt debt) - Inserts a debt under a key (no-op if it is
+    // already there)
+    // remove(long key, Debt debt) - Removes a debt indexed under that key
+    // size()
+
+    // ===========================
+    // Range Methods
+    // ===========================
+    // lowerBound(long key) - First position with a key >= key
+    // upperBound(long key) - First position with a key > key
+    // keyAt(int position) / debtAt(int position)
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private Debt[] debts = new Debt[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long key, Debt debt) {
+        int position = find(key, debt.getDebtId());
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            debts = Arrays.copyOf(debts, capacity);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(debts, position, debts, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = debt.getDebtId();
+        debts[position] = debt;
+        size++;
+    }
+
+    boolean remove(long key, Debt debt) {
+        int position = find(key, debt.getDebtId());
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        System.arraycopy(debts, position + 1, debts, position, size - position - 1);
+        debts[--size] = null;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int upperBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    long keyAt(int position) {
+        return keys[position];
+    }
+
+    Debt debtAt(int position) {
+        return debts[position];
+    }
+
+    // Position of (key, id), or -(insertion point) - 1 like Arrays.binarySearch
+    private int find(long key, long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid] != key ? Long.compare(keys[mid], key) : Long.compare(ids[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,355 @@
+package Model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+public class RecordCodec {
+
+    // ===========================
+    // File Header Methods - Methods for writing and checking the magic/version
+    // header at the start of every .dat file
+    // ===========================
+    // writeHeader(DataOutput out, byte kind) - Writes magic, schema version and
+    // record kind
+    // readHeader(DataInput in, byte kind) - Validates the header and returns the
+    // schema version of the file
+    // isCodecFile(File file) - Checks whether a file starts with the codec magic
+
+    // ===========================
+    // Primitive Helpers - Length-prefixed strings and nullable dates
+    // ===========================
+    // writeString(DataOutput out, String s) - Writes int length + UTF-8 bytes (-1
+    // for null)
+    // readString(DataInput in) - Reads a string written by writeString
+    // writeDate(DataOutput out, Date d) / readDate(DataInput in) - Epoch millis,
+    // Long.MIN_VALUE for null
+    // readId(DataInput in) - Reads a stored ID and reports it to IdGenerator
+
+    // ===========================
+    // Record Methods - Encoders/decoders for each persisted model class
+    // ===========================
+    // writeUser/readUser, writeDebt/readDebt, writeDebtData/readDebtData,
+    // writeRequest/readRequest, writeRequestBody/readRequestBody,
+    // writeAppointment/readAppointment
+
+    // ===========================
+    // Collection Methods - Whole-file payloads used by DataManager
+    // ===========================
+    // writeUsers/readUsers, writeRequests/readRequests,
+    // writeAppointments/readAppointments
+
+    // "HDTB" - Hanoi Debt Tower Binary
+    public static final int MAGIC = 0x48445442;
+    public static final short VERSION = 6;
+
+    public static final byte KIND_USERS = 1;
+    public static final byte KIND_DEBTS = 2;
+    public static final byte KIND_REQUESTS = 3;
+    public static final byte KIND_APPOINTMENTS = 4;
+    public static final byte KIND_JOURNAL = 5;
+    public static final byte KIND_CONSULTATIONS = 6;
+    public static final byte KIND_USER_DIRECTORY = 7;
+
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    public static void writeHeader(DataOutput out, byte kind) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(kind);
+    }
+
+    public static short readHeader(DataInput in, byte kind) throws IOException {
+        int magic = in.readInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a Hanoi data file (bad magic " + Integer.toHexString(magic) + ")");
+        }
+        short version = in.readShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported data file version " + version);
+        }
+        byte fileKind = in.readByte();
+        if (fileKind != kind) {
+            throw new IOException("Unexpected record kind " + fileKind + " (expected " + kind + ")");
+        }
+        return version;
+    }
+
+    public static boolean isCodecFile(File file) {
+        if (!file.exists() || file.length() < 4) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void writeString(DataOutput out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeDate(DataOutput out, Date d) throws IOException {
+        out.writeLong(d != null ? d.getTime() : NULL_DATE);
+    }
+
+    public static Date readDate(DataInput in) throws IOException {
+        long millis = in.readLong();
+        return millis == NULL_DATE ? null : new Date(millis);
+    }
+
+    // Reads a stored ID and makes sure IdGenerator never hands it out again
+    public static long readId(DataInput in) throws IOException {
+        long id = in.readLong();
+        IdGenerator.observe(id);
+        return id;
+    }
+
+    public static void writeUser(DataOutput out, User user) throws IOException {
+        writeString(out, user.getFullName());
+        writeString(out, user.getEmail());
+        writeString(out, user.getUsername());
+        writeString(out, user.getPassword());
+        writeString(out, user.getUserType());
+    }
+
+    public static User readUser(DataInput in, short version) throws IOException {
+        String fullName = readString(in);
+        String email = readString(in);
+        String username = readString(in);
+        String password = readString(in);
+        String userType = readString(in);
+        return new User(fullName, email, username, password, userType);
+    }
+
+    public static void writeDebt(DataOutput out, Debt debt) throws IOException {
+        out.writeLong(debt.getDebtId());
+        writeString(out, debt.getName());
+        out.writeLong(debt.getOriginalAmountCents());
+        out.writeLong(debt.getCurrentBalanceCents());
+        out.writeDouble(debt.getInterestRate());
+        out.writeLong(debt.getMinimumPaymentCents());
+    }
+
+    public static Debt readDebt(DataInput in, short version) throws IOException {
+        // Version 3 added stable IDs; older records get a fresh one
+        long debtId = version >= 3 ? readId(in) : IdGenerator.nextId();
+        String name = readString(in);
+        if (version < 4) {
+            // Versions before 4 stored money as double dollars
+            long originalAmount = Money.toCents(in.readDouble());
+            long currentBalance = Money.toCents(in.readDouble());
+            double interestRate = in.readDouble();
+            long minimumPayment = Money.toCents(in.readDouble());
+            return new Debt(debtId, name, originalAmount, currentBalance, interestRate, minimumPayment);
+        }
+        long originalAmount = in.readLong();
+        long currentBalance = in.readLong();
+        double interestRate = in.readDouble();
+        long minimumPayment = in.readLong();
+        return new Debt(debtId, name, originalAmount, currentBalance, interestRate, minimumPayment);
+    }
+
+    public static void writeDebtList(DataOutput out, ArrayList<Debt> debts) throws IOException {
+        out.writeInt(debts.size());
+        for (Debt debt : debts) {
+            writeDebt(out, debt);
+        }
+    }
+
+    public static ArrayList<Debt> readDebtList(DataInput in, short version) throws IOException {
+        int count = in.readInt();
+        ArrayList<Debt> debts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            debts.add(readDebt(in, version));
+        }
+        return debts;
+    }
+
+    public static void writeDebtData(DataOutput out, DataManager.DebtData data) throws IOException {
+        out.writeLong(data.getJournalEpoch());
+        writeDebtList(out, data.getCurrentDebts());
+        writeDebtList(out, data.getPaidOffDebts());
+        writeDebtList(out, data.getAuxiliaryDebts());
+        out.writeByte(data.getStrategy().ordinal());
+    }
+
+    public static DataManager.DebtData readDebtData(DataInput in, short version) throws IOException {
+        // Version 1 files predate the debt journal
+        long epoch = version >= 2 ? in.readLong() : 0;
+        ArrayList<Debt> current = readDebtList(in, version);
+        ArrayList<Debt> paidOff = readDebtList(in, version);
+        // The auxiliary pillar is saved from version 5 on
+        ArrayList<Debt> auxiliary = version >= 5 ? readDebtList(in, version) : new ArrayList<>();
+        // Version 6 added the strategy; the active list is in push order either way
+        DebtManager.Strategy strategy = version >= 6 ? readStrategy(in) : DebtManager.Strategy.LIFO;
+        return new DataManager.DebtData(current, paidOff, auxiliary, epoch, strategy);
+    }
+
+    private static DebtManager.Strategy readStrategy(DataInput in) throws IOException {
+        int ordinal = in.readByte();
+        if (ordinal < 0 || ordinal >= DebtManager.Strategy.values().length) {
+            throw new IOException("Unknown strategy " + ordinal);
+        }
+        return DebtManager.Strategy.values()[ordinal];
+    }
+
+    public static void writeRequest(DataOutput out, ConsultationRequest request) throws IOException {
+        out.writeLong(request.getRequestId());
+        writeRequestBody(out, request);
+        writeString(out, request.getStatus());
+    }
+
+    public static ConsultationRequest readRequest(DataInput in, short version) throws IOException {
+        long requestId = version >= 3 ? readId(in) : IdGenerator.nextId();
+        ConsultationRequest request = readRequestBody(in, version, null);
+        request.setRequestId(requestId);
+        request.setStatus(readString(in));
+        return request;
+    }
+
+    // Every field except the status (ConsultationStore keeps the status in a fixed slot)
+    public static void writeRequestBody(DataOutput out, ConsultationRequest request) throws IOException {
+        writeString(out, request.getClientUsername());
+        writeString(out, request.getClientName());
+        writeString(out, request.getReason());
+        writeString(out, request.getAdvisorUsername());
+        writeString(out, request.getAdvisorName());
+        writeString(out, request.getPlatform());
+        writeString(out, request.getAppointmentDate());
+        writeDate(out, request.getRequestDate());
+    }
+
+    public static ConsultationRequest readRequestBody(DataInput in, short version, String status)
+            throws IOException {
+        String clientUsername = readString(in);
+        String clientName = readString(in);
+        String reason = readString(in);
+        String advisorUsername = readString(in);
+        String advisorName = readString(in);
+        String platform = readString(in);
+        String appointmentDate = readString(in);
+        Date requestDate = readDate(in);
+        return new ConsultationRequest(clientUsername, clientName, reason, advisorUsername, advisorName,
+                platform, appointmentDate, requestDate, status);
+    }
+
+    public static void writeAppointment(DataOutput out, ConsultationAppointment appointment) throws IOException {
+        out.writeLong(appointment.getAppointmentId());
+        out.writeLong(appointment.getRequestId());
+        writeString(out, appointment.getClientUsername());
+        writeString(out, appointment.getClientName());
+        writeString(out, appointment.getAdvisorUsername());
+        writeString(out, appointment.getAdvisorName());
+        writeString(out, appointment.getReason());
+        writeString(out, appointment.getPlatform());
+        writeString(out, appointment.getAppointmentDate());
+        writeDate(out, appointment.getScheduledDate());
+        writeString(out, appointment.getStatus());
+    }
+
+    public static ConsultationAppointment readAppointment(DataInput in, short version) throws IOException {
+        long appointmentId = version >= 3 ? readId(in) : IdGenerator.nextId();
+        long requestId = version >= 3 ? in.readLong() : 0;
+        String clientUsername = readString(in);
+        String clientName = readString(in);
+        String advisorUsername = readString(in);
+        String advisorName = readString(in);
+        String reason = readString(in);
+        String platform = readString(in);
+        String appointmentDate = readString(in);
+        Date scheduledDate = readDate(in);
+        String status = readString(in);
+        ConsultationAppointment appointment = new ConsultationAppointment(appointmentId, clientUsername,
+                clientName, advisorUsername, advisorName, reason, platform, appointmentDate, scheduledDate, status);
+        appointment.setRequestId(requestId);
+        return appointment;
+    }
+
+    public static void writeUsers(DataOutput out, Map<String, User> users) throws IOException {
+        writeHeader(out, KIND_USERS);
+        out.writeInt(users.size());
+        for (Map.Entry<String, User> entry : users.entrySet()) {
+            writeString(out, entry.getKey());
+            writeUser(out, entry.getValue());
+        }
+    }
+
+    public static Map<String, User> readUsers(DataInput in) throws IOException {
+        short version = readHeader(in, KIND_USERS);
+        int count = in.readInt();
+        Map<String, User> users = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            String key = readString(in);
+            users.put(key, readUser(in, version));
+        }
+        return users;
+    }
+
+    public static void writeDebtFile(DataOutput out, DataManager.DebtData data) throws IOException {
+        writeHeader(out, KIND_DEBTS);
+        writeDebtData(out, data);
+    }
+
+    public static DataManager.DebtData readDebtFile(DataInput in) throws IOException {
+        short version = readHeader(in, KIND_DEBTS);
+        return readDebtData(in, version);
+    }
+
+    public static void writeRequests(DataOutput out, ArrayList<ConsultationRequest> requests) throws IOException {
+        writeHeader(out, KIND_REQUESTS);
+        out.writeInt(requests.size());
+        for (ConsultationRequest request : requests) {
+            writeRequest(out, request);
+        }
+    }
+
+    public static ArrayList<ConsultationRequest> readRequests(DataInput in) throws IOException {
+        short version = readHeader(in, KIND_REQUESTS);
+        int count = in.readInt();
+        ArrayList<ConsultationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(readRequest(in, version));
+        }
+        return requests;
+    }
+
+    public static void writeAppointments(DataOutput out, ArrayList<ConsultationAppointment> appointments)
+            throws IOException {
+        writeHeader(out, KIND_APPOINTMENTS);
+        out.writeInt(appointments.size());
+        for (ConsultationAppointment appointment : appointments) {
+            writeAppointment(out, appointment);
+        }
+    }
+
+    public static ArrayList<ConsultationAppointment> readAppointments(DataInput in) throws IOException {
+        short version = readHeader(in, KIND_APPOINTMENTS);
+        int count = in.readInt();
+        ArrayList<ConsultationAppointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            appointments.add(readAppointment(in, version));
+        }
+        return appointments;
+    }
+}
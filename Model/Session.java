@@ -0,0 +1,106 @@
+package Model;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// One logged-in user: their debts, their tower service and when they were last
+// seen. Sessions are created and closed by SessionRegistry.
+//
+// The manager and service are not thread-safe, so anything that may run at the
+// same time as another request for the same session must hold lock() around
+// its work, and check isClosed() once it has the lock (an idle session can be
+// evicted between lookup and lock). The desktop dashboards run everything on the
+// EDT and don't need to.
+public class Session {
+
+    // ===========================
+    // Accessors - Identity and per-session state
+    // ===========================
+    // getToken() / getUser() / getUsername() / getManager() / getService()
+    // getCreatedMillis() / getLastAccessMillis() / isClosed() / isPinned()
+
+    // ===========================
+    // Concurrency Methods - Serializing requests within one session
+    // ===========================
+    // lock() / unlock() / tryLock() - The session's lock
+    // touch() - Marks the session as used now (postpones idle eviction)
+
+    private final String token;
+    private final User user;
+    private final DebtManager manager;
+    private final DebtTowerService service;
+    private final long createdMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccessMillis;
+    private volatile boolean closed;
+    // Pinned sessions (the desktop user) are never evicted for being idle
+    private volatile boolean pinned;
+
+    Session(String token, User user, DebtManager manager) {
+        this.token = token;
+        this.user = user;
+        this.manager = manager;
+        this.service = new DebtTowerService(manager);
+        this.createdMillis = System.currentTimeMillis();
+        this.lastAccessMillis = createdMillis;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    public DebtManager getManager() {
+        return manager;
+    }
+
+    public DebtTowerService getService() {
+        return service;
+    }
+
+    public long getCreatedMillis() {
+        return createdMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    void markClosed() {
+        closed = true;
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    public void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+}
@@ -0,0 +1,208 @@
+package Model;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Every logged-in user in this process, keyed by session token. Lookups are a
+// plain ConcurrentHashMap read (no lock). A user has at most one session:
+// logging in again joins the existing one, so two managers never write the same
+// user's snapshot and journal.
+public class SessionRegistry {
+
+    // ===========================
+    // Session Lifecycle Methods - Opening, finding and closing sessions
+    // ===========================
+    // open(User user) - Returns the user's session, loading their debts
+    // (snapshot + journal) if they don't have one yet
+    // get(String token) - Lock-free lookup; touches the session, null if unknown
+    // or closed
+    // getByUsername(String username) - The user's live session, if any
+    // close(String token) - Flushes the session's debts and closes its journal
+    // flush(Session session) - Saves a session's debts without closing it
+
+    // ===========================
+    // Eviction Methods - Closing sessions nobody has used for a while
+    // ===========================
+    // evictIdle() - Closes every unpinned session idle longer than the timeout
+    // startEviction(long periodMillis) - Runs evictIdle() on a daemon thread
+    // shutdown() - Stops eviction and closes (saves) every session
+    // size()
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+    private static final int TOKEN_BYTES = 24;
+
+    private final ConcurrentHashMap<String, Session> sessionsByToken = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Session> sessionsByUsername = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long idleTimeoutMillis;
+    private ScheduledExecutorService evictor;
+
+    public SessionRegistry() {
+        this(DEFAULT_IDLE_TIMEOUT_MILLIS);
+    }
+
+    public SessionRegistry(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public Session open(User user) {
+        while (true) {
+            Session session = sessionsByUsername.computeIfAbsent(user.getUsername(), username -> {
+                Session created = new Session(newToken(), user, loadManager(username));
+                sessionsByToken.put(created.getToken(), created);
+                return created;
+            });
+            session.touch();
+            if (!session.isClosed()) {
+                return session;
+            }
+            // Being closed right now: wait for its debts to be flushed before the
+            // user's files are loaded again
+            session.lock();
+            session.unlock();
+            sessionsByUsername.remove(user.getUsername(), session);
+        }
+    }
+
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessionsByToken.get(token);
+        if (session == null || session.isClosed()) {
+            return null;
+        }
+        session.touch();
+        return session;
+    }
+
+    public Session getByUsername(String username) {
+        Session session = sessionsByUsername.get(username);
+        return session == null || session.isClosed() ? null : session;
+    }
+
+    public boolean close(String token) {
+        Session session = sessionsByToken.get(token);
+        if (session == null) {
+            return false;
+        }
+        session.lock();
+        try {
+            return closeLocked(session);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int evicted = 0;
+        for (Session session : sessionsByToken.values()) {
+            if (session.isPinned() || session.getLastAccessMillis() > cutoff) {
+                continue;
+            }
+            // A session in the middle of a request is not idle, skip it this round
+            if (!session.tryLock()) {
+                continue;
+            }
+            try {
+                if (session.getLastAccessMillis() <= cutoff && closeLocked(session)) {
+                    evicted++;
+                    System.out.println("Session for '" + session.getUsername() + "' evicted after being idle.");
+                }
+            } finally {
+                session.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    public synchronized void startEviction(long periodMillis) {
+        if (evictor != null) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            try {
+                evictIdle();
+            } catch (RuntimeException e) {
+                System.err.println("Error evicting idle sessions: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+        for (Session session : new ArrayList<>(sessionsByToken.values())) {
+            close(session.getToken());
+        }
+    }
+
+    public int size() {
+        return sessionsByToken.size();
+    }
+
+    // Same save path as a desktop logout: fold the journal into a snapshot, or
+    // write the snapshot directly if the manager isn't journaling
+    public void flush(Session session) {
+        DebtManager manager = session.getManager();
+        if (manager.getJournal() != null) {
+            manager.getJournal().checkpoint(manager);
+        } else {
+            DataManager.saveUserDebts(session.getUsername(), manager.snapshot());
+        }
+    }
+
+    // Caller holds the session lock
+    private boolean closeLocked(Session session) {
+        if (session.isClosed()) {
+            return false;
+        }
+        // Closed first so lookups stop returning it, removed last so a new login
+        // for the same user waits for the flush instead of loading stale files
+        session.markClosed();
+        try {
+            flush(session);
+        } catch (RuntimeException e) {
+            System.err.println("Error saving debts for " + session.getUsername() + ": " + e.getMessage());
+        }
+        if (session.getManager().getJournal() != null) {
+            session.getManager().getJournal().close();
+        }
+        sessionsByToken.remove(session.getToken(), session);
+        sessionsByUsername.remove(session.getUsername(), session);
+        return true;
+    }
+
+    // Load user's debts (snapshot + journal replay) and start journaling new actions
+    private static DebtManager loadManager(String username) {
+        DataManager.DebtData debtData = DataManager.loadUserDebts(username);
+        DebtManager manager = new DebtManager();
+        manager.loadPillars(debtData);
+        DebtJournal.open(username, manager, debtData.getJournalEpoch());
+
+        System.out.println("Loaded " + debtData.getCurrentDebts().size() +
+                " current debts, " + debtData.getAuxiliaryDebts().size() +
+                " parked debts and " + debtData.getPaidOffDebts().size() +
+                " paid off debts for user: " + username);
+        return manager;
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -1,21 +1,38 @@
 package Model;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class User implements Serializable {
     private static final long serialVersionUID = 1L;
+    // Serialized form is unchanged (userType as a String), so legacy .dat files
+    // written before UserType still deserialize
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("fullName", String.class),
+            new ObjectStreamField("email", String.class),
+            new ObjectStreamField("username", String.class),
+            new ObjectStreamField("password", String.class),
+            new ObjectStreamField("userType", String.class) };
+
     private String fullName;
     private String email;
     private String username;
     private String password;
-    private String userType; // "DEBTOR" or "ADVISOR"
+    private UserType type;
 
-    public User(String fullName, String email, String username, String password, String userType) {
+    public User(String fullName, String email, String username, String password, UserType type) {
         this.fullName = fullName;
         this.email = email;
         this.username = username;
         this.password = password;
-        this.userType = userType;
+        this.type = type;
+    }
+
+    public User(String fullName, String email, String username, String password, String userType) {
+        this(fullName, email, username, password, UserType.parse(userType));
     }
 
     // Getters and setters
@@ -35,13 +52,41 @@ public class User implements Serializable {
         return password;
     }
 
+    public UserType getType() {
+        return type;
+    }
+
+    // "DEBTOR" or "ADVISOR"
     public String getUserType() {
-        return userType;
+        return type.name();
+    }
+
+    public boolean isAdvisor() {
+        return type == UserType.ADVISOR;
     }
 
     // Update the existing constructor if needed
     public User(String fullName, String email, String username, String password) {
-        this(fullName, email, username, password, "DEBTOR"); // Default to debtor
+        this(fullName, email, username, password, UserType.DEBTOR); // Default to debtor
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("fullName", fullName);
+        fields.put("email", email);
+        fields.put("username", username);
+        fields.put("password", password);
+        fields.put("userType", type.name());
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        fullName = (String) fields.get("fullName", null);
+        email = (String) fields.get("email", null);
+        username = (String) fields.get("username", null);
+        password = (String) fields.get("password", null);
+        type = UserType.parse((String) fields.get("userType", null));
     }
 
     @Override
@@ -50,7 +95,7 @@ public class User implements Serializable {
                 "fullName='" + fullName + '\'' +
                 ", email='" + email + '\'' +
                 ", username='" + username + '\'' +
-                ", userType='" + userType + '\'' +
+                ", userType=" + type +
                 '}';
     }
 }
\ No newline at end of file
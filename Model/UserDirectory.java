@@ -0,0 +1,555 @@
+package Model;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class UserDirectory {
+
+    // ===========================
+    // Directory Lifecycle Methods - Opening the memory-mapped file
+    // ===========================
+    // getInstance() - Returns the shared directory, opening user_directory.dat
+    // on first use (imported from users.dat the first time)
+    // force() - Writes mapped changes to disk
+    // recover() - Drops a slot left by a registration that crashed before it
+    // committed (private)
+    // size() - Number of users
+    // refresh() - Remaps the file (dropping the advisor roster) if another
+    // instance replaced or grew it; called by the file watcher, and by readers
+    // that find records past the end of their mapping
+
+    // ===========================
+    // User Methods - Lookups touch only the slot and record pages they need
+    // ===========================
+    // get(String username) - Looks up a user, null if unknown
+    // contains(String username)
+    // add(User user) - Appends the user and syncs it (false if the username is
+    // taken). Holds FileLocks for the file, so with -Ddepstack.processLocks=true
+    // instances sharing it don't claim the same record space or slot
+    // getAdvisors() - Every financial advisor, oldest first; served from an
+    // in-memory roster that add() keeps current and that is reloaded when the
+    // advisor chain's head moves
+
+    static final String DIRECTORY_FILE = "user_directory.dat";
+
+    // Header: codec header (7 bytes, padded to 8) | int slotCount | int userCount
+    // | int advisorCount | pad | long dataEnd | long advisorHead | int pendingSlot
+    // | pad to 64
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int USER_COUNT_OFFSET = 12;
+    private static final int ADVISOR_COUNT_OFFSET = 16;
+    private static final int DATA_END_OFFSET = 24;
+    private static final int ADVISOR_HEAD_OFFSET = 32;
+    private static final int PENDING_SLOT_OFFSET = 40;
+    private static final int HEADER_SIZE = 64;
+
+    // A registration is made durable in two syncs. First the record (past
+    // dataEnd) and its slot are written, with the slot noted in pendingSlot, and
+    // synced. Then the header is written with the new dataEnd and counts and
+    // pendingSlot cleared, and synced; dataEnd is the commit. The header's 64
+    // bytes share one disk sector, so they reach the disk together. A slot
+    // pointing at or past dataEnd belongs to an uncommitted record: lookups stop
+    // there and recover() clears it.
+
+    // Slot table (open addressing, linear probing): int hash | long record offset
+    // (0 = empty). Kept at most half full; the file is rebuilt with twice the
+    // slots when it would pass that.
+    private static final int SLOT_SIZE = 12;
+    private static final int MIN_SLOTS = 1024;
+
+    // Record: int bodyLength | long nextAdvisor | body (username + user fields,
+    // as in users.dat). Advisors are chained newest first through nextAdvisor.
+    private static final int RECORD_HEADER_SIZE = 4 + 8;
+
+    private static UserDirectory instance;
+
+    private final File file;
+    // Writers take the write lock; lookups only share the read lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private RandomAccessFile raf;
+    private MappedByteBuffer map;
+    private short version;
+    private int slotCount;
+    // Identity of the mapped file, to notice it being replaced
+    private Object mappedFileKey;
+    // Advisors oldest first, null until first asked for (or after a remap)
+    private volatile Roster roster;
+
+    private UserDirectory(File file) {
+        this.file = file;
+    }
+
+    public static synchronized UserDirectory getInstance() {
+        if (instance == null) {
+            UserDirectory directory = new UserDirectory(new File(DIRECTORY_FILE));
+            directory.open();
+            directory.startWatching();
+            instance = directory;
+        }
+        return instance;
+    }
+
+    private boolean isEmptyFile() {
+        return !file.exists() || file.length() < HEADER_SIZE;
+    }
+
+    private void open() {
+        // Read users.dat for the import before taking the directory's lock, so the
+        // two files' locks are never held together (see FileLocks)
+        Map<String, User> legacy = isEmptyFile() ? DataManager.loadUsers() : Collections.emptyMap();
+        lock.writeLock().lock();
+        try {
+            FileLocks.withLock(DIRECTORY_FILE, () -> {
+                if (isEmptyFile()) {
+                    UserDirectory imported = newCopy(slotsFor(legacy.size()));
+                    for (User user : legacy.values()) {
+                        imported.append(user, false);
+                    }
+                    install(imported);
+                    if (!legacy.isEmpty()) {
+                        System.out.println("Imported " + legacy.size() + " users into " + DIRECTORY_FILE);
+                    }
+                }
+                mapFile();
+                recover();
+            });
+        } catch (IOException e) {
+            System.err.println("Error opening user directory: " + e.getMessage());
+            map = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Power of two with room for twice the users
+    private static int slotsFor(int users) {
+        int slots = MIN_SLOTS;
+        while (slots < users * 2) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    private static void create(File target, int slots) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_SIZE);
+        DataOutputStream out = new DataOutputStream(header);
+        RecordCodec.writeHeader(out, RecordCodec.KIND_USER_DIRECTORY);
+        while (header.size() < SLOT_COUNT_OFFSET) {
+            out.writeByte(0);
+        }
+        out.writeInt(slots);
+        out.writeInt(0); // users
+        out.writeInt(0); // advisors
+        out.writeInt(0);
+        out.writeLong(HEADER_SIZE + (long) slots * SLOT_SIZE); // data end
+        out.writeLong(0); // advisor head
+        while (header.size() < HEADER_SIZE) {
+            out.writeByte(0);
+        }
+
+        try (RandomAccessFile created = new RandomAccessFile(target, "rw")) {
+            created.setLength(0);
+            created.write(header.toByteArray());
+            // Empty slot table plus as much room again for records
+            created.setLength(HEADER_SIZE + (long) slots * SLOT_SIZE * 2);
+        }
+    }
+
+    private void mapFile() throws IOException {
+        if (raf != null) {
+            raf.close();
+        }
+        raf = new RandomAccessFile(file, "rw");
+        map = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        mappedFileKey = fileKey();
+
+        byte[] header = new byte[7];
+        map.get(0, header);
+        version = RecordCodec.readHeader(new DataInputStream(new ByteArrayInputStream(header)),
+                RecordCodec.KIND_USER_DIRECTORY);
+        slotCount = map.getInt(SLOT_COUNT_OFFSET);
+        if (Integer.bitCount(slotCount) != 1 || dataEnd() > map.capacity()) {
+            throw new IOException("Corrupt user directory header");
+        }
+    }
+
+    public User get(String username) {
+        if (username == null) {
+            return null;
+        }
+        lockForReading();
+        try {
+            if (map == null) {
+                return null;
+            }
+            long offset = find(username);
+            return offset != 0 ? readUser(offset) : null;
+        } catch (IOException e) {
+            System.err.println("Error reading user " + username + ": " + e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String username) {
+        return get(username) != null;
+    }
+
+    public boolean add(User user) {
+        lock.writeLock().lock();
+        try {
+            return FileLocks.withLock(DIRECTORY_FILE, () -> {
+                if (map == null) {
+                    return false;
+                }
+                catchUp();
+                if (find(user.getUsername()) != 0) {
+                    return false;
+                }
+                if ((userCount() + 1) * 2 > slotCount) {
+                    rebuild(slotCount * 2);
+                }
+                long head = map.getLong(ADVISOR_HEAD_OFFSET);
+                append(user, true);
+                Roster cached = roster;
+                if (cached != null && cached.head == head && user.isAdvisor()) {
+                    ArrayList<User> advisors = new ArrayList<>(cached.advisors);
+                    advisors.add(user);
+                    roster = new Roster(map.getLong(ADVISOR_HEAD_OFFSET), advisors);
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            System.err.println("Error adding user " + user.getUsername() + ": " + e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // The roster is rebuilt only when the advisor chain's head has moved. With
+    // -Ddepstack.processLocks=true that includes advisors another instance
+    // registered in the shared file; without it only one instance may write it
+    public ArrayList<User> getAdvisors() {
+        lockForReading();
+        try {
+            if (map == null) {
+                return new ArrayList<>();
+            }
+            long head = map.getLong(ADVISOR_HEAD_OFFSET);
+            Roster cached = roster;
+            if (cached == null || cached.head != head) {
+                ArrayList<User> advisors = new ArrayList<>();
+                for (long offset = head; offset != 0; offset = map.getLong((int) offset + 4)) {
+                    advisors.add(readUser(offset));
+                }
+                Collections.reverse(advisors);
+                cached = new Roster(head, advisors);
+                roster = cached;
+            }
+            return new ArrayList<>(cached.advisors);
+        } catch (IOException e) {
+            System.err.println("Error reading advisors: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Our own syncs change the file's mtime too, so a watcher event alone doesn't
+    // mean anything changed; the roster only goes when the mapping is replaced
+    // (getAdvisors() notices appended advisors by the chain's head)
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            if (map == null || !Objects.equals(fileKey(), mappedFileKey) || file.length() > map.capacity()
+                    || map.getInt(SLOT_COUNT_OFFSET) != slotCount) {
+                mapFile();
+                roster = null;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reloading user directory: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Refresh whenever the file is created, replaced or modified (including by
+    // this process's own syncs; refresh() ignores those)
+    private void startWatching() {
+        Path dir = file.getAbsoluteFile().getParentFile().toPath();
+        Path name = file.toPath().getFileName();
+        WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Error watching user directory: " + e.getMessage());
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            while (true) {
+                WatchKey key;
+                try {
+                    key = watcher.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= name.equals(event.context());
+                }
+                if (changed) {
+                    refresh();
+                }
+                key.reset();
+            }
+        }, "user-directory-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private Object fileKey() throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    }
+
+    // Takes the read lock on a mapping that covers every committed record,
+    // remapping first if another instance grew the file past it
+    private void lockForReading() {
+        lock.readLock().lock();
+        if (map != null && dataEnd() > map.capacity()) {
+            lock.readLock().unlock();
+            refresh();
+            lock.readLock().lock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return map != null ? userCount() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void force() {
+        lock.readLock().lock();
+        try {
+            if (map != null) {
+                sync();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds a lock
+    private void sync() {
+        if (GroupCommit.MODE != GroupCommit.Mode.NONE) {
+            map.force();
+        }
+    }
+
+    // Caller holds the write lock and the file lock
+    private void recover() {
+        int pending = map.getInt(PENDING_SLOT_OFFSET);
+        if (pending == 0) {
+            return;
+        }
+        int position = HEADER_SIZE + (pending - 1) * SLOT_SIZE;
+        if (map.getLong(position + 4) >= dataEnd()) {
+            map.putInt(position, 0);
+            map.putLong(position + 4, 0);
+        }
+        map.putInt(PENDING_SLOT_OFFSET, 0);
+        sync();
+    }
+
+    // Another instance holding the file lock before us may have grown the file
+    // or rebuilt it (replacing it), or crashed mid-registration. Caller holds the
+    // write lock and the file lock.
+    private void catchUp() throws IOException {
+        if (!Objects.equals(fileKey(), mappedFileKey) || file.length() > map.capacity()) {
+            mapFile();
+            roster = null;
+        }
+        recover();
+    }
+
+    // Offset of the user's record, 0 if absent. Caller holds a lock.
+    private long find(String username) {
+        int hash = hash(username);
+        byte[] key = username.getBytes(StandardCharsets.UTF_8);
+        int mask = slotCount - 1;
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int position = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = map.getLong(position + 4);
+            if (offset == 0 || offset >= dataEnd()) {
+                return 0;
+            }
+            if (map.getInt(position) == hash && keyMatches(offset, key)) {
+                return offset;
+            }
+        }
+    }
+
+    // Compares the username at the start of a record's body without decoding it
+    private boolean keyMatches(long offset, byte[] key) {
+        int position = (int) offset + RECORD_HEADER_SIZE;
+        if (map.getInt(position) != key.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < key.length; i++) {
+            if (map.get(position + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private User readUser(long offset) throws IOException {
+        int length = map.getInt((int) offset);
+        byte[] body = new byte[length];
+        map.get((int) offset + RECORD_HEADER_SIZE, body);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        RecordCodec.readString(in); // username key
+        return RecordCodec.readUser(in, version);
+    }
+
+    // Caller holds the write lock and the file lock (or is filling a copy that
+    // isn't installed yet) and has checked the username is free and there is a
+    // free slot. A durable append syncs before and after its commit.
+    private void append(User user, boolean durable) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(buffer);
+        RecordCodec.writeString(out, user.getUsername());
+        RecordCodec.writeUser(out, user);
+        byte[] body = buffer.toByteArray();
+
+        long offset = dataEnd();
+        long end = offset + RECORD_HEADER_SIZE + body.length;
+        if (end > map.capacity()) {
+            grow(end);
+        }
+        boolean advisor = user.isAdvisor();
+
+        // Record and slot, not yet reachable (the slot points past dataEnd)
+        int position = (int) offset;
+        map.putInt(position, body.length);
+        map.putLong(position + 4, advisor ? map.getLong(ADVISOR_HEAD_OFFSET) : 0);
+        map.put(position + RECORD_HEADER_SIZE, body);
+
+        int hash = hash(user.getUsername());
+        int mask = slotCount - 1;
+        int slot = hash & mask;
+        while (map.getLong(HEADER_SIZE + slot * SLOT_SIZE + 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        map.putInt(PENDING_SLOT_OFFSET, slot + 1);
+        map.putInt(HEADER_SIZE + slot * SLOT_SIZE, hash);
+        map.putLong(HEADER_SIZE + slot * SLOT_SIZE + 4, offset);
+        if (durable) {
+            sync();
+        }
+
+        // The commit: every header field in one sector
+        map.putInt(USER_COUNT_OFFSET, userCount() + 1);
+        if (advisor) {
+            map.putLong(ADVISOR_HEAD_OFFSET, offset);
+            map.putInt(ADVISOR_COUNT_OFFSET, map.getInt(ADVISOR_COUNT_OFFSET) + 1);
+        }
+        map.putInt(PENDING_SLOT_OFFSET, 0);
+        map.putLong(DATA_END_OFFSET, end);
+        if (durable) {
+            sync();
+        }
+    }
+
+    // Extend the file (at least doubling it) and map the larger file
+    private void grow(long needed) throws IOException {
+        long length = Math.max(needed, (long) map.capacity() * 2);
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("user directory is full");
+        }
+        map.force();
+        raf.setLength(length);
+        mapFile();
+    }
+
+    // Copy every record, in order, into a new file with more slots and swap it in
+    private void rebuild(int newSlots) throws IOException {
+        UserDirectory rebuilt = newCopy(newSlots);
+        long end = dataEnd();
+        long offset = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        while (offset < end) {
+            rebuilt.append(readUser(offset), false);
+            offset += RECORD_HEADER_SIZE + map.getInt((int) offset);
+        }
+        raf.close();
+        map = null;
+        roster = null;
+        install(rebuilt);
+        mapFile();
+    }
+
+    // An empty directory in "<file>.tmp", filled by the caller and then installed
+    private UserDirectory newCopy(int slots) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        create(temp, slots);
+        UserDirectory copy = new UserDirectory(temp);
+        copy.mapFile();
+        return copy;
+    }
+
+    // Sync the copy and rename it over this directory's file
+    private void install(UserDirectory copy) throws IOException {
+        copy.map.force();
+        copy.raf.close();
+        copy.map = null;
+        DataManager.moveAtomically(copy.file.toPath(), file.toPath());
+        GroupCommit.forceDirectory(file.getAbsoluteFile().getParentFile().toPath());
+    }
+
+    private static final class Roster {
+        final long head;
+        final List<User> advisors;
+
+        Roster(long head, List<User> advisors) {
+            this.head = head;
+            this.advisors = Collections.unmodifiableList(advisors);
+        }
+    }
+
+    private long dataEnd() {
+        return map.getLong(DATA_END_OFFSET);
+    }
+
+    private int userCount() {
+        return map.getInt(USER_COUNT_OFFSET);
+    }
+
+    private static int hash(String username) {
+        int h = username.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
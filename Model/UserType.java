@@ -0,0 +1,19 @@
+package Model;
+
+// Kind of account. Files and the String API (User.getUserType, register) still
+// use the names "DEBTOR" / "ADVISOR".
+public enum UserType {
+    DEBTOR, ADVISOR;
+
+    // Unknown or missing types were treated as debtors before, and still are
+    public static UserType parse(String name) {
+        if (name != null) {
+            for (UserType type : values()) {
+                if (type.name().equalsIgnoreCase(name.trim())) {
+                    return type;
+                }
+            }
+        }
+        return DEBTOR;
+    }
+}
@@ -0,0 +1,447 @@
+package Server;
+
+import Model.AppController;
+import Model.ConsultationRequest;
+import Model.ConsultationStore;
+import Model.DataManager;
+import Model.Debt;
+import Model.DebtManager;
+import Model.DebtTowerService;
+import Model.Money;
+import Model.Session;
+import Model.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Headless JSON API over the same controller, sessions and tower service the
+// dashboards use. Every request runs on its own virtual thread (a cached thread
+// pool before Java 21); requests for one session are serialized on its lock.
+//
+// Authenticated routes take "Authorization: Bearer <token>" from /api/login.
+// IDs are 64-bit and go out as strings so JavaScript clients don't round them.
+public class ApiServer {
+
+    // ===========================
+    // Lifecycle Methods
+    // ===========================
+    // ApiServer(AppController controller, String host, int port) - Binds the
+    // server (port 0 picks a free one)
+    // start() - Starts serving and evicting idle sessions
+    // stop(int delaySeconds) - Stops serving and saves every open session
+    // getPort() - The bound port
+
+    // ===========================
+    // Routes (all under /api)
+    // ===========================
+    // POST /login {username, password} - Opens a session, returns its token
+    // POST /register {fullName, email, username, password, userType}
+    // POST /logout - Saves and closes the caller's session
+    // GET /debts - Active (TOS first), auxiliary and paid-off pillars
+    // GET /debts/top - The TOS debt
+    // POST /debts {name, amount, interestRate, minimumPayment} - Pushes a new TOS
+    // POST /debts/pop - Pops the TOS
+    // POST /debts/pay {amount} - Pays the TOS
+    // GET /advisors - Every financial advisor
+    // GET /requests - A debtor's own requests, or an advisor's pending ones
+    // POST /requests {advisorUsername, reason, platform} - Debtor asks for a
+    // consultation
+    // POST /requests/{id}/schedule, POST /requests/{id}/reject - Advisor answers
+
+    // Idle sessions are checked for eviction this often
+    private static final long EVICTION_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final AppController controller;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(AppController controller, String host, int port) throws IOException {
+        this.controller = controller;
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        controller.getSessions().startEviction(EVICTION_PERIOD_MILLIS);
+        System.out.println("API server listening on port " + getPort());
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        controller.getSessions().shutdown();
+        System.out.println("API server stopped.");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // One virtual thread per request on Java 21+. Looked up reflectively so the
+    // project still builds and runs on older JDKs, which get a cached pool.
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "api-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            Object body = route(exchange);
+            int status = body instanceof Created ? 201 : 200;
+            send(exchange, status, body instanceof Created ? ((Created) body).value : body);
+        } catch (ApiException e) {
+            send(exchange, e.status, Json.object("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, Json.object("error", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath() + ": " + e.getMessage());
+            send(exchange, 500, Json.object("error", "Internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Object route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String resource = path[0];
+
+        switch (resource) {
+            case "login":
+                requireMethod(method, "POST");
+                return login(readBody(exchange));
+            case "register":
+                requireMethod(method, "POST");
+                return register(readBody(exchange));
+            case "logout":
+                requireMethod(method, "POST");
+                return logout(exchange);
+            case "advisors":
+                requireMethod(method, "GET");
+                return advisors();
+            case "debts":
+                return debts(exchange, method, path);
+            case "requests":
+                return requests(exchange, method, path);
+            default:
+                throw new ApiException(404, "No such resource: " + resource);
+        }
+    }
+
+    private Object login(Map<String, Object> body) {
+        Session session = controller.openSession(requireString(body, "username"), requireString(body, "password"));
+        if (session == null) {
+            throw new ApiException(401, "Invalid username or password");
+        }
+        User user = session.getUser();
+        return Json.object("token", session.getToken(), "username", user.getUsername(),
+                "fullName", user.getFullName(), "userType", user.getUserType());
+    }
+
+    private Object register(Map<String, Object> body) {
+        String userType = optionalString(body, "userType", "DEBTOR");
+        if (!"DEBTOR".equals(userType) && !"ADVISOR".equals(userType)) {
+            throw new IllegalArgumentException("userType must be DEBTOR or ADVISOR");
+        }
+        String username = requireString(body, "username");
+        if (!controller.registerUser(requireString(body, "fullName"), optionalString(body, "email", ""),
+                username, requireString(body, "password"), userType)) {
+            throw new ApiException(409, "Username already exists: " + username);
+        }
+        return new Created(Json.object("username", username, "userType", userType));
+    }
+
+    private Object logout(HttpExchange exchange) {
+        String token = bearerToken(exchange);
+        if (token == null || !controller.closeSession(token)) {
+            throw new ApiException(401, "Not logged in");
+        }
+        return Json.object("loggedOut", true);
+    }
+
+    private Object advisors() {
+        List<Object> advisors = new ArrayList<>();
+        for (User advisor : DataManager.getFinancialAdvisors()) {
+            advisors.add(Json.object("username", advisor.getUsername(), "fullName", advisor.getFullName()));
+        }
+        return advisors;
+    }
+
+    private Object debts(HttpExchange exchange, String method, String[] path) throws IOException {
+        String action = path.length > 1 ? path[1] : "";
+        Map<String, Object> body = "POST".equals(method) ? readBody(exchange) : null;
+        Session session = lockSession(exchange);
+        try {
+            DebtTowerService service = session.getService();
+            DebtManager manager = session.getManager();
+            switch (action) {
+                case "":
+                    if ("GET".equals(method)) {
+                        return Json.object("strategy", manager.getStrategy().name(),
+                                "tos", debtJson(service.peekTOS()),
+                                "active", debtsJson(service.getActiveDebts()),
+                                "auxiliary", debtsJson(service.getAuxiliaryDebts()),
+                                "paidOff", debtsJson(service.getPaidOffDebts()));
+                    }
+                    requireMethod(method, "POST");
+                    return new Created(debtJson(service.push(requireString(body, "name"),
+                            requireCents(body, "amount"), optionalNumber(body, "interestRate", 0),
+                            optionalCents(body, "minimumPayment", 0))));
+                case "top":
+                    requireMethod(method, "GET");
+                    return requireDebt(service.peekTOS());
+                case "pop":
+                    requireMethod(method, "POST");
+                    return requireDebt(manager.popDebt());
+                case "pay":
+                    requireMethod(method, "POST");
+                    DebtTowerService.PaymentResult payment = service.pay(requireCents(body, "amount"));
+                    if (payment == null) {
+                        throw new ApiException(404, "No active debt");
+                    }
+                    return Json.object("debt", debtJson(payment.getDebt()),
+                            "paidCents", payment.getPaidCents(),
+                            "paidOff", payment.isPaidOff(),
+                            "restored", debtJson(payment.getRestored()));
+                default:
+                    throw new ApiException(404, "No such resource: debts/" + action);
+            }
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private Object requests(HttpExchange exchange, String method, String[] path) throws IOException {
+        Map<String, Object> body = "POST".equals(method) ? readBody(exchange) : null;
+        Session session = lockSession(exchange);
+        try {
+            User user = session.getUser();
+            boolean advisor = user.isAdvisor();
+
+            if (path.length == 1) {
+                if ("GET".equals(method)) {
+                    ArrayList<ConsultationRequest> requests = advisor
+                            ? DataManager.loadAdvisorRequests(user.getUsername())
+                            : DataManager.loadClientRequests(user.getUsername());
+                    List<Object> list = new ArrayList<>();
+                    for (ConsultationRequest request : requests) {
+                        list.add(requestJson(request));
+                    }
+                    return list;
+                }
+                requireMethod(method, "POST");
+                if (advisor) {
+                    throw new ApiException(403, "Only debtors can request a consultation");
+                }
+                String advisorUsername = requireString(body, "advisorUsername");
+                User advisorUser = controller.getUser(advisorUsername);
+                if (advisorUser == null || !advisorUser.isAdvisor()) {
+                    throw new ApiException(404, "No such advisor: " + advisorUsername);
+                }
+                ConsultationRequest request = new ConsultationRequest(user.getUsername(), user.getFullName(),
+                        requireString(body, "reason"), advisorUsername, advisorUser.getFullName(),
+                        optionalString(body, "platform", "Zoom"));
+                DataManager.addConsultationRequest(request);
+                return new Created(requestJson(request));
+            }
+
+            requireMethod(method, "POST");
+            if (!advisor) {
+                throw new ApiException(403, "Only advisors can answer consultation requests");
+            }
+            long requestId;
+            try {
+                requestId = Long.parseLong(path[1]);
+            } catch (NumberFormatException e) {
+                throw new ApiException(404, "No such request: " + path[1]);
+            }
+            ConsultationRequest request = ConsultationStore.getInstance().get(requestId);
+            if (request == null || !user.getUsername().equals(request.getAdvisorUsername())) {
+                throw new ApiException(404, "No such request: " + requestId);
+            }
+            if (!"PENDING".equals(request.getStatus())) {
+                throw new ApiException(409, "Request is already " + request.getStatus());
+            }
+            String action = path.length > 2 ? path[2] : "";
+            if ("schedule".equals(action)) {
+                session.getService().schedule(request);
+            } else if ("reject".equals(action)) {
+                session.getService().reject(request);
+            } else {
+                throw new ApiException(404, "No such action: " + action);
+            }
+            return requestJson(request);
+        } finally {
+            session.unlock();
+        }
+    }
+
+    // Returns the caller's session with its lock held; the caller must unlock
+    private Session lockSession(HttpExchange exchange) {
+        Session session = controller.getSession(bearerToken(exchange));
+        if (session == null) {
+            throw new ApiException(401, "Not logged in");
+        }
+        session.lock();
+        if (session.isClosed()) {
+            session.unlock();
+            throw new ApiException(401, "Session expired");
+        }
+        return session;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        return header.substring("Bearer ".length()).trim();
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Error sending response: " + e.getMessage());
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new ApiException(405, "Use " + expected);
+        }
+    }
+
+    private static String requireString(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (value == null || value.toString().trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing field: " + field);
+        }
+        return value.toString().trim();
+    }
+
+    private static String optionalString(Map<String, Object> body, String field, String fallback) {
+        Object value = body.get(field);
+        return value == null || value.toString().trim().isEmpty() ? fallback : value.toString().trim();
+    }
+
+    // Money fields may be JSON numbers or strings ("12.50")
+    private static long requireCents(Map<String, Object> body, String field) {
+        try {
+            return Money.parse(requireString(body, field));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Bad amount in field: " + field);
+        }
+    }
+
+    private static long optionalCents(Map<String, Object> body, String field, long fallback) {
+        return body.get(field) == null ? fallback : requireCents(body, field);
+    }
+
+    private static double optionalNumber(Map<String, Object> body, String field, double fallback) {
+        Object value = body.get(field);
+        if (value == null) {
+            return fallback;
+        }
+        return value instanceof BigDecimal ? ((BigDecimal) value).doubleValue()
+                : Double.parseDouble(value.toString().trim());
+    }
+
+    private static Object requireDebt(Debt debt) {
+        if (debt == null) {
+            throw new ApiException(404, "No active debt");
+        }
+        return debtJson(debt);
+    }
+
+    private static Object debtJson(Debt debt) {
+        if (debt == null) {
+            return null;
+        }
+        return Json.object("id", String.valueOf(debt.getDebtId()),
+                "name", debt.getName(),
+                "balanceCents", debt.getCurrentBalanceCents(),
+                "originalCents", debt.getOriginalAmountCents(),
+                "interestRate", debt.getInterestRate(),
+                "minimumPaymentCents", debt.getMinimumPaymentCents());
+    }
+
+    private static List<Object> debtsJson(List<Debt> debts) {
+        List<Object> list = new ArrayList<>(debts.size());
+        for (Debt debt : debts) {
+            list.add(debtJson(debt));
+        }
+        return list;
+    }
+
+    private static Object requestJson(ConsultationRequest request) {
+        return Json.object("id", String.valueOf(request.getRequestId()),
+                "clientUsername", request.getClientUsername(),
+                "clientName", request.getClientName(),
+                "advisorUsername", request.getAdvisorUsername(),
+                "advisorName", request.getAdvisorName(),
+                "reason", request.getReason(),
+                "platform", request.getPlatform(),
+                "appointmentDate", request.getAppointmentDate(),
+                "status", request.getStatus());
+    }
+
+    // Marks a response body as 201 Created
+    private static class Created {
+        final Object value;
+
+        Created(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}